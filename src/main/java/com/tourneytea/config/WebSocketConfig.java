@@ -10,6 +10,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
+        // TopicFanout takes over /topic subscriptions and messages; the simple broker
+        // stays enabled so the broker channel and messaging template still exist
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
     }
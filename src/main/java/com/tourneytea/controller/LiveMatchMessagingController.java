@@ -0,0 +1,46 @@
+package com.tourneytea.controller;
+
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.messaging.TopicFanout;
+import com.tourneytea.repository.MatchRepository;
+import com.tourneytea.service.LiveMatchStore;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP endpoints next to the /topic/matches/{uuid} delta broadcasts.
+ *
+ * A new subscriber to /topic/matches/{uuid} of a live match is first sent its
+ * snapshot from the live store, so it does not have to fetch the match over
+ * REST or wait for the next point. Matches that are not live get no snapshot
+ * there, since no deltas follow for them.
+ */
+@Controller
+public class LiveMatchMessagingController {
+
+    private static final String MATCH_TOPIC = "/topic/matches/";
+
+    private final LiveMatchStore liveMatchStore;
+    private final MatchRepository matchRepository;
+
+    public LiveMatchMessagingController(LiveMatchStore liveMatchStore, MatchRepository matchRepository,
+                                        TopicFanout topicFanout) {
+        this.liveMatchStore = liveMatchStore;
+        this.matchRepository = matchRepository;
+        topicFanout.registerSnapshotSource(MATCH_TOPIC,
+                destination -> liveMatchStore.snapshot(destination.substring(MATCH_TOPIC.length())));
+    }
+
+    /**
+     * Full state of a match for a client that has just subscribed or has missed
+     * a delta version. Subscribing to /app/matches/{uuid}/snapshot returns it once
+     * to that client only. Matches that are not live have version 0.
+     */
+    @SubscribeMapping("/matches/{matchUuid}/snapshot")
+    public MatchDelta snapshot(@DestinationVariable String matchUuid) {
+        return liveMatchStore.snapshot(matchUuid)
+                .or(() -> matchRepository.findById(matchUuid).map(match -> MatchDelta.snapshot(match, 0)))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tourneytea.controller;
+
+import com.tourneytea.service.MatchEventStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Server-sent event streams of match deltas for clients that only need scores
+ * and don't want a STOMP connection. Each event's data is a
+ * {@link com.tourneytea.dto.MatchDelta} as sent on /topic/matches/{uuid}; a
+ * reconnecting client's {@code Last-Event-ID} resumes where it left off.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*")
+public class MatchStreamController {
+
+    private final MatchEventStream matchEventStream;
+    private final int maxMatchesPerStream;
+
+    public MatchStreamController(
+            MatchEventStream matchEventStream,
+            @Value("${tourneytea.stream.max-matches-per-stream:100}") int maxMatchesPerStream) {
+        this.matchEventStream = matchEventStream;
+        this.maxMatchesPerStream = maxMatchesPerStream;
+    }
+
+    @GetMapping(value = "/matches", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> streamMatches(
+            @RequestParam Set<String> ids,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (ids.isEmpty() || ids.size() > maxMatchesPerStream) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(matchEventStream.matches(ids, lastEventId));
+    }
+
+    @GetMapping(value = "/tournaments/{tournamentId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamTournament(
+            @PathVariable String tournamentId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return matchEventStream.tournament(tournamentId, lastEventId);
+    }
+}
@@ -1,14 +1,32 @@
 package com.tourneytea.controller;
 
+import com.tourneytea.dto.CursorPage;
+import com.tourneytea.dto.MatchFilter;
+import com.tourneytea.dto.MatchSummary;
+import com.tourneytea.dto.SyncJob;
+import com.tourneytea.messaging.TopicFanout;
 import com.tourneytea.model.*;
 import com.tourneytea.repository.*;
+import com.tourneytea.scheduler.JobExecutors;
+import com.tourneytea.scheduler.TournamentScheduler;
+import com.tourneytea.service.AggregateTopicPublisher;
+import com.tourneytea.service.LiveMatchStore;
 import com.tourneytea.service.LiveScoreStreamService;
+import com.tourneytea.service.LiveUpdateDispatcher;
+import com.tourneytea.service.MatchEventStream;
+import com.tourneytea.service.MatchIngestionService;
+import com.tourneytea.service.MatchWriteBehind;
 import com.tourneytea.service.PickleballApiService;
+import com.tourneytea.service.RawPayloadCodec;
+import com.tourneytea.service.SyncCoordinator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,14 +36,35 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class PickleballController {
 
+    // List endpoints return pages of at most MAX_PAGE_SIZE rows
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TournamentRepository tournamentRepository;
     private final MatchRepository matchRepository;
+    private final TournamentRawDataRepository tournamentRawDataRepository;
+    private final MatchRawDataRepository matchRawDataRepository;
     private final PickleballApiService apiService;
     private final LiveScoreStreamService liveScoreService;
+    private final MatchIngestionService matchIngestionService;
+    private final TournamentScheduler tournamentScheduler;
+    private final JobExecutors jobExecutors;
+    private final SyncCoordinator syncCoordinator;
+    private final LiveUpdateDispatcher liveUpdateDispatcher;
+    private final LiveMatchStore liveMatchStore;
+    private final MatchWriteBehind matchWriteBehind;
+    private final TopicFanout topicFanout;
+    private final AggregateTopicPublisher aggregateTopicPublisher;
+    private final MatchEventStream matchEventStream;
 
     @GetMapping("/tournaments")
-    public List<Tournament> getAllTournaments() {
-        return tournamentRepository.findAll();
+    public CursorPage<TournamentRepository.TournamentSummary> getTournaments(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int size = pageSize(limit);
+        return CursorPage.of(tournamentRepository.findSummaries(status, cursor, Limit.of(size + 1)),
+                size, TournamentRepository.TournamentSummary::getId);
     }
 
     @GetMapping("/tournaments/active")
@@ -40,49 +79,88 @@ public class PickleballController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(value = "/tournaments/{id}/raw", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getTournamentRawData(@PathVariable String id) {
+        return tournamentRawDataRepository.findById(id)
+                .map(raw -> ResponseEntity.ok(RawPayloadCodec.decompress(raw.getPayload())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/matches/{id}/raw", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getMatchRawData(@PathVariable String id) {
+        return matchRawDataRepository.findById(id)
+                .map(raw -> ResponseEntity.ok(RawPayloadCodec.decompress(raw.getPayload())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/tournaments/{id}/matches")
-    public List<Match> getTournamentMatches(@PathVariable String id) {
-        return matchRepository.findByTournamentId(id);
+    public CursorPage<MatchSummary> getTournamentMatches(
+            @PathVariable String id,
+            MatchFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int size = pageSize(limit);
+        return CursorPage.of(matchRepository.findSummariesByTournamentId(id, filter.getEvent(), filter.getRound(),
+                filter.getCourt(), filter.getStatus(), cursor, Limit.of(size + 1)), size, MatchSummary::getMatchUuid);
     }
 
     @GetMapping("/matches/live")
-    public List<Match> getLiveMatches() {
-        return matchRepository.findLiveMatches();
+    public CursorPage<MatchSummary> getLiveMatches(
+            MatchFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int size = pageSize(limit);
+        filter.setStatus(2);
+        // Served from memory once live matches are loaded; the database lags behind live updates
+        List<MatchSummary> rows = liveMatchStore.isEmpty()
+                ? matchRepository.findSummaries(filter.getEvent(), filter.getRound(), filter.getCourt(),
+                        filter.getStatus(), cursor, Limit.of(size + 1))
+                : liveMatchStore.getLiveMatches().stream()
+                        .filter(match -> cursor == null || match.getMatchUuid().compareTo(cursor) > 0)
+                        .filter(filter::test)
+                        .limit(size + 1)
+                        .map(MatchSummary::of)
+                        .toList();
+        return CursorPage.of(rows, size, MatchSummary::getMatchUuid);
     }
 
     @GetMapping("/matches/completed")
-    public List<Match> getCompletedMatches() {
-        return matchRepository.findCompletedMatches();
+    public CursorPage<MatchSummary> getCompletedMatches(
+            MatchFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int size = pageSize(limit);
+        return CursorPage.of(matchRepository.findCompletedSummaries(filter.getEvent(), filter.getRound(),
+                filter.getCourt(), filter.getStatus(), cursor, Limit.of(size + 1)), size, MatchSummary::getMatchUuid);
     }
 
     @GetMapping("/matches/{id}")
     public ResponseEntity<Match> getMatch(@PathVariable String id) {
-        return matchRepository.findById(id)
+        return liveMatchStore.get(id)
+                .or(() -> matchRepository.findById(id))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Debug/Admin endpoints
+    // Sync endpoints return immediately with a job; poll /admin/sync-jobs/{jobId} for the result
     @PostMapping("/admin/fetch-tournaments")
-    public ResponseEntity<String> fetchTournaments() {
-        try {
-            apiService.fetchAndSaveAllPPATournaments();
-            return ResponseEntity.ok("Tournament fetch triggered");
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error: " + e.getMessage());
-        }
+    public ResponseEntity<SyncJob> fetchTournaments() {
+        return ResponseEntity.accepted().body(syncCoordinator.submitTournamentSync());
     }
 
     @PostMapping("/admin/fetch-matches/{tournamentSlug}")
-    public ResponseEntity<String> fetchMatches(
+    public ResponseEntity<SyncJob> fetchMatches(
             @PathVariable String tournamentSlug,
             @RequestParam String tournamentId) {
-        try {
-            apiService.fetchAndSaveAllMatches(tournamentSlug, tournamentId);
-            return ResponseEntity.ok("Match fetch triggered for " + tournamentSlug);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error: " + e.getMessage());
-        }
+        return ResponseEntity.accepted().body(syncCoordinator.submitMatchSync(tournamentSlug, tournamentId));
+    }
+
+    @GetMapping("/admin/sync-jobs/{jobId}")
+    public ResponseEntity<SyncJob> getSyncJob(@PathVariable String jobId) {
+        return syncCoordinator.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/admin/connect-live-scores")
@@ -93,37 +171,63 @@ public class PickleballController {
                 return ResponseEntity.ok("No live matches found");
             }
 
-            List<String> matchIds = liveMatches.stream()
-                    .map(Match::getMatchUuid)
-                    .collect(java.util.stream.Collectors.toList());
-
-            liveScoreService.connectToLiveScores(matchIds);
-            return ResponseEntity.ok("Connected to " + matchIds.size() + " live matches");
+            liveMatchStore.refresh(liveMatches);
+            liveScoreService.connectToLiveScores(liveMatches);
+            return ResponseEntity.ok("Connected to " + liveMatches.size() + " live matches");
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
     }
 
+    @GetMapping("/admin/live-shards")
+    public List<Map<String, Object>> getLiveShards() {
+        return liveScoreService.getShardHealth();
+    }
+
     @GetMapping("/admin/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalTournaments", tournamentRepository.count());
         stats.put("activeTournaments", tournamentRepository.findActiveTournaments().size());
         stats.put("totalMatches", matchRepository.count());
-        stats.put("liveMatches", matchRepository.findLiveMatches().size());
-        stats.put("completedMatches", matchRepository.findCompletedMatches().size());
+        stats.put("liveMatches", matchRepository.countByMatchStatus(2));
+        stats.put("completedMatches", matchRepository.countCompletedMatches());
+        stats.put("upstreamRequestsInFlight", apiService.getInFlightRequests());
+        stats.put("upstreamRequestsQueued", apiService.getQueuedRequests());
+        stats.put("upstreamResponseCache", apiService.getResponseCacheStats());
+        stats.put("tournamentSyncsRunning", matchIngestionService.getRunning());
+        stats.put("lastTournamentSyncs", matchIngestionService.getLastReports());
+        stats.put("syncCoordination", syncCoordinator.getStats());
+        stats.put("nextTournamentPolls", tournamentScheduler.getNextPollTimes());
+        stats.put("liveStreams", liveScoreService.getStats());
+        stats.put("liveUpdates", liveUpdateDispatcher.getStats());
+        stats.put("liveMatchStore", liveMatchStore.getStats());
+        stats.put("liveWriteBehind", matchWriteBehind.getStats());
+        stats.put("websocketFanout", topicFanout.getStats());
+        stats.put("aggregateTopics", aggregateTopicPublisher.getStats());
+        stats.put("eventStreams", matchEventStream.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/admin/jobs")
+    public ResponseEntity<Map<String, Object>> getJobStats() {
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        tournamentScheduler.getJobs().forEach(job -> jobs.put(job.getName(), job.getStats()));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("jobs", jobs);
+        stats.put("executors", jobExecutors.getStats());
         return ResponseEntity.ok(stats);
     }
 
     @PostMapping("/admin/add-tournament-manually")
-    public ResponseEntity<String> addTournamentManually(
+    public ResponseEntity<SyncJob> addTournamentManually(
             @RequestParam String tournamentId,
             @RequestParam String tournamentSlug) {
-        try {
-            apiService.fetchAndSaveAllMatches(tournamentSlug, tournamentId);
-            return ResponseEntity.ok("Added tournament and fetched matches for: " + tournamentSlug);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error: " + e.getMessage());
-        }
+        return ResponseEntity.accepted().body(syncCoordinator.submitMatchSync(tournamentSlug, tournamentId));
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.tourneytea.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list endpoint. {@code nextCursor} is passed back as
+ * {@code cursor} for the page after this one, and is null on the last page.
+ *
+ * Pages are keyed on the row id rather than an offset, so a page costs the
+ * same however deep into the list it is and rows inserted meanwhile don't
+ * shift later pages.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Build a page from up to {@code size + 1} rows in key order; the extra
+     * row only shows that there is a next page.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> key) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, key.apply(items.get(size - 1)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.tourneytea.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What is sent on the aggregate topics /topic/tournaments/{id} and
+ * /topic/courts/{courtTitle}: the full state of every match in the group that
+ * changed since the previous batch, each with its own version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchBatch {
+    private String destination;
+    private List<MatchDelta> matches;
+}
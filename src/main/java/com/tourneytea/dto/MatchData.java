@@ -46,6 +46,7 @@ public class MatchData {
     private String roundText;
     private String roundNumber;
     private String courtTitle;
+    private String courtUuid;
 
     // Event Info
     private String eventUuid;
@@ -56,6 +57,8 @@ public class MatchData {
     private String gameOneStatus;
     private String gameTwoStatus;
     private String gameThreeStatus;
+    private String gameFourStatus;
+    private String gameFiveStatus;
 
     // Server Info
     private Integer server;
@@ -0,0 +1,38 @@
+package com.tourneytea.dto;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * What is sent on /topic/matches/{uuid}: only the fields an update changed,
+ * with their bits in {@code changed} (see {@link MatchField}).
+ *
+ * {@code version} goes up by one with every delta for a match. A new subscriber
+ * to a live match first receives a full state with {@code snapshot} set; deltas
+ * up to its version can be ignored. A client that sees a version other than the
+ * one after its last gets a fresh snapshot by subscribing to
+ * /app/matches/{uuid}/snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchDelta {
+    private String matchUuid;
+    private long version;
+    private long changed;
+    private boolean snapshot;
+    private Map<String, Object> fields;
+
+    public static MatchDelta of(Match match, long version, long changed) {
+        return new MatchDelta(match.getMatchUuid(), version, changed, false, MatchField.values(match, changed));
+    }
+
+    public static MatchDelta snapshot(Match match, long version) {
+        return new MatchDelta(match.getMatchUuid(), version, MatchField.ALL, true, MatchField.values(match, MatchField.ALL));
+    }
+}
@@ -0,0 +1,29 @@
+package com.tourneytea.dto;
+
+import com.tourneytea.model.Match;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional filters of the match list endpoints, bound from query parameters.
+ * Event, round and court each match either the id or the title as shown.
+ */
+@Data
+@NoArgsConstructor
+public class MatchFilter {
+    private String event;
+    private String round;
+    private String court;
+    private Integer status;
+
+    public boolean test(Match match) {
+        return matches(event, match.getEventUuid(), match.getEventTitle())
+                && matches(round, match.getRoundText(), match.getRoundNumber())
+                && matches(court, match.getCourtUuid(), match.getCourtTitle())
+                && (status == null || status.equals(match.getMatchStatus()));
+    }
+
+    private static boolean matches(String filter, String id, String title) {
+        return filter == null || filter.equals(id) || filter.equals(title);
+    }
+}
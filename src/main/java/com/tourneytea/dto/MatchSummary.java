@@ -0,0 +1,68 @@
+package com.tourneytea.dto;
+
+import com.tourneytea.model.Match;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a match shown in a list: who is playing where, the game
+ * scores and the state. Queried directly by the list endpoints; the full
+ * match is at /api/matches/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchSummary {
+    private String matchUuid;
+    private String tournamentId;
+    private String eventUuid;
+    private String eventTitle;
+    private String roundText;
+    private String roundNumber;
+    private String courtUuid;
+    private String courtTitle;
+
+    private String teamOnePlayerOneName;
+    private String teamOnePlayerTwoName;
+    private String teamTwoPlayerOneName;
+    private String teamTwoPlayerTwoName;
+
+    private Integer teamOneGameOneScore;
+    private Integer teamTwoGameOneScore;
+    private Integer teamOneGameTwoScore;
+    private Integer teamTwoGameTwoScore;
+    private Integer teamOneGameThreeScore;
+    private Integer teamTwoGameThreeScore;
+    private Integer teamOneGameFourScore;
+    private Integer teamTwoGameFourScore;
+    private Integer teamOneGameFiveScore;
+    private Integer teamTwoGameFiveScore;
+
+    private Integer matchStatus;
+    private Integer winner;
+    private LocalDateTime localDateMatchPlannedStart;
+    private LocalDateTime localDateMatchStart;
+    private LocalDateTime localDateMatchCompleted;
+    private LocalDateTime lastUpdate;
+
+    public static MatchSummary of(Match match) {
+        return new MatchSummary(
+                match.getMatchUuid(), match.getTournamentId(),
+                match.getEventUuid(), match.getEventTitle(),
+                match.getRoundText(), match.getRoundNumber(),
+                match.getCourtUuid(), match.getCourtTitle(),
+                match.getTeamOnePlayerOneName(), match.getTeamOnePlayerTwoName(),
+                match.getTeamTwoPlayerOneName(), match.getTeamTwoPlayerTwoName(),
+                match.getTeamOneGameOneScore(), match.getTeamTwoGameOneScore(),
+                match.getTeamOneGameTwoScore(), match.getTeamTwoGameTwoScore(),
+                match.getTeamOneGameThreeScore(), match.getTeamTwoGameThreeScore(),
+                match.getTeamOneGameFourScore(), match.getTeamTwoGameFourScore(),
+                match.getTeamOneGameFiveScore(), match.getTeamTwoGameFiveScore(),
+                match.getMatchStatus(), match.getWinner(),
+                match.getLocalDateMatchPlannedStart(), match.getLocalDateMatchStart(),
+                match.getLocalDateMatchCompleted(), match.getLastUpdate());
+    }
+}
@@ -0,0 +1,25 @@
+package com.tourneytea.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchSyncCounts {
+    private int inserted;
+    private int updated;
+    private int unchanged;
+
+    public MatchSyncCounts add(MatchSyncCounts other) {
+        inserted += other.inserted;
+        updated += other.updated;
+        unchanged += other.unchanged;
+        return this;
+    }
+
+    public int getSaved() {
+        return inserted + updated;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tourneytea.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SyncJob {
+    public enum Status { RUNNING, SUCCEEDED, FAILED }
+
+    private String jobId;
+    private String type;
+    private String key;
+    // True when the request joined a sync that was already running
+    private boolean joinedExisting;
+    private volatile Status status = Status.RUNNING;
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Object result;
+    private volatile String error;
+}
@@ -1,11 +0,0 @@
-package com.tourneytea.dto;
-
-import lombok.Data;
-
-import java.util.List;
-
-@Data
-public class TickerData {
-    private List<MatchData> matches;
-    private int totalRecords;
-}
\ No newline at end of file
@@ -1,9 +0,0 @@
-package com.tourneytea.dto;
-
-import lombok.Data;
-
-@Data
-public class TournamentResponse {
-    private TournamentData data;
-    private int statusCode;
-}
@@ -0,0 +1,21 @@
+package com.tourneytea.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentSyncReport {
+    private String tournamentSlug;
+    private String tournamentId;
+    private int pages;
+    private MatchSyncCounts matches;
+    private long durationMillis;
+    private String error;
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.tourneytea.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebClient filter that caps the number of in-flight requests, both in total
+ * and per target host. Waiting requests are queued without blocking a thread.
+ * <p>
+ * A request holds its permits until its response body has been read, cancelled
+ * or failed, not just until the headers arrive, so streamed downloads count
+ * against the limit too. Callers must consume or release every body.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter implements ExchangeFilterFunction {
+
+    private final Permits global;
+    private final int perHostLimit;
+    private final Map<String, Permits> perHost = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(int globalLimit, int perHostLimit) {
+        this.global = new Permits(Math.max(1, globalLimit));
+        this.perHostLimit = Math.max(1, perHostLimit);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Permits host = perHost.computeIfAbsent(
+                String.valueOf(request.url().getHost()), h -> new Permits(perHostLimit));
+
+        // Always acquire global before host so two requests can't deadlock each other
+        return global.acquire()
+                .then(host.acquire().doOnCancel(global::release))
+                .then(Mono.defer(() -> {
+                    AtomicBoolean held = new AtomicBoolean(true);
+                    Runnable release = () -> {
+                        if (held.compareAndSet(true, false)) {
+                            host.release();
+                            global.release();
+                        }
+                    };
+                    return next.exchange(request)
+                            .map(response -> response.mutate()
+                                    // Released before the body's end reaches the reader, so a finished read sees the permit back
+                                    .body(body -> body.doOnTerminate(release).doOnCancel(release))
+                                    .build())
+                            .doOnError(e -> release.run())
+                            .doOnCancel(release);
+                }));
+    }
+
+    public int getInFlight() {
+        return global.inUse();
+    }
+
+    public int getQueued() {
+        return global.queued();
+    }
+
+    /**
+     * Minimal non-blocking counting semaphore.
+     */
+    private static final class Permits {
+        private final int limit;
+        private int available;
+        private final Queue<MonoSink<Void>> waiters = new ArrayDeque<>();
+
+        Permits(int limit) {
+            this.limit = limit;
+            this.available = limit;
+        }
+
+        Mono<Void> acquire() {
+            return Mono.create(sink -> {
+                boolean granted;
+                synchronized (this) {
+                    granted = available > 0;
+                    if (granted) {
+                        available--;
+                    } else {
+                        waiters.add(sink);
+                    }
+                }
+                if (granted) {
+                    sink.success();
+                } else {
+                    sink.onCancel(() -> {
+                        boolean removed;
+                        synchronized (this) {
+                            removed = waiters.remove(sink);
+                        }
+                        // Cancelled while the permit was being handed over: give it back
+                        if (!removed) {
+                            release();
+                        }
+                    });
+                }
+            });
+        }
+
+        void release() {
+            MonoSink<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    available = Math.min(limit, available + 1);
+                    return;
+                }
+            }
+            next.success();
+        }
+
+        synchronized int inUse() {
+            return limit - available;
+        }
+
+        synchronized int queued() {
+            return waiters.size();
+        }
+    }
+}
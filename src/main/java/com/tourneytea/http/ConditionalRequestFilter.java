@@ -0,0 +1,217 @@
+package com.tourneytea.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebClient filter that turns repeated GETs into conditional requests.
+ * Requests opt in by setting the {@link #CACHE_KEY} attribute. For each key the
+ * filter remembers the ETag/Last-Modified validators and a hash of the last body.
+ * <p>
+ * Callers see a 304 response when nothing changed, either because upstream
+ * answered 304 or because a response without validators had an identical body.
+ * Responses with validators are streamed through untouched; only responses
+ * without validators are buffered, so their body can be compared before decoding.
+ * A body without validators that grows past {@code maxComparedBodyBytes} is
+ * not compared: what was buffered so far is passed on followed by the rest of
+ * the stream, so no response is ever held in memory whole above that size.
+ */
+@Slf4j
+public class ConditionalRequestFilter implements ExchangeFilterFunction {
+
+    public static final String CACHE_KEY = ConditionalRequestFilter.class.getName() + ".cacheKey";
+
+    public static final int DEFAULT_MAX_COMPARED_BODY_BYTES = 2 * 1024 * 1024;
+
+    private final int maxComparedBodyBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong identicalBodies = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong tooLargeToCompare = new AtomicLong();
+
+    public ConditionalRequestFilter() {
+        this(DEFAULT_MAX_COMPARED_BODY_BYTES);
+    }
+
+    public ConditionalRequestFilter(int maxComparedBodyBytes) {
+        this.maxComparedBodyBytes = Math.max(0, maxComparedBodyBytes);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String key = (String) request.attribute(CACHE_KEY).orElse(null);
+        if (key == null || request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+
+        Entry cached = entries.get(key);
+        ClientRequest conditional = request;
+        if (cached != null && (cached.etag != null || cached.lastModified != null)) {
+            conditional = ClientRequest.from(request)
+                    .headers(headers -> {
+                        if (cached.etag != null) {
+                            headers.setIfNoneMatch(cached.etag);
+                        }
+                        if (cached.lastModified != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified);
+                        }
+                    })
+                    .build();
+        }
+
+        return next.exchange(conditional).flatMap(response -> handle(key, cached, response));
+    }
+
+    private Mono<ClientResponse> handle(String key, Entry cached, ClientResponse response) {
+        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            notModified.incrementAndGet();
+            log.debug("{} not modified (304)", key);
+            return Mono.just(response);
+        }
+        if (!response.statusCode().is2xxSuccessful()) {
+            return Mono.just(response);
+        }
+
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+
+        if (etag != null || lastModified != null) {
+            // Stream the body through, hashing it on the way; remember it once fully read
+            MessageDigest digest = newDigest();
+            return Mono.just(response.mutate()
+                    .body(body -> body
+                            .doOnNext(buffer -> update(digest, buffer))
+                            .doOnComplete(() -> {
+                                changed.incrementAndGet();
+                                entries.put(key, new Entry(etag, lastModified, digest.digest()));
+                            }))
+                    .build());
+        }
+
+        // No validators: buffer the body, up to the cap, and compare its hash with the last one.
+        // A chunk list only closes early once the cap is passed, so a first list
+        // within the cap is the whole body.
+        AtomicLong read = new AtomicLong();
+        return response.bodyToFlux(DataBuffer.class)
+                .bufferUntil(buffer -> read.addAndGet(buffer.readableByteCount()) > maxComparedBodyBytes)
+                .switchOnFirst((first, chunks) -> {
+                    if (!first.hasValue()) {
+                        return Flux.just(withBody(response, Flux.empty()));
+                    }
+                    List<DataBuffer> prefix = first.get();
+                    if (read.get() <= maxComparedBodyBytes) {
+                        return Flux.just(compare(key, cached, response, prefix));
+                    }
+                    tooLargeToCompare.incrementAndGet();
+                    entries.remove(key);
+                    log.debug("{} body is over {} bytes, passing it through", key, maxComparedBodyBytes);
+                    Flux<DataBuffer> body = Flux.fromIterable(prefix)
+                            .concatWith(chunks.skip(1).concatMapIterable(chunk -> chunk));
+                    return Flux.just(withBody(response, body));
+                }, false)
+                .singleOrEmpty()
+                .defaultIfEmpty(response);
+    }
+
+    private ClientResponse compare(String key, Entry cached, ClientResponse response, List<DataBuffer> body) {
+        MessageDigest digest = newDigest();
+        body.forEach(buffer -> update(digest, buffer));
+        byte[] hash = digest.digest();
+
+        if (cached != null && Arrays.equals(hash, cached.bodyHash)) {
+            body.forEach(DataBufferUtils::release);
+            identicalBodies.incrementAndGet();
+            log.debug("{} body unchanged", key);
+            return withBody(response, HttpStatus.NOT_MODIFIED, Flux.empty());
+        }
+
+        changed.incrementAndGet();
+        entries.put(key, new Entry(null, null, hash));
+        return withBody(response, Flux.fromIterable(body));
+    }
+
+    // A new response rather than mutate(), which would subscribe to the original body
+    // again to drain it; that body is being read or already has been
+    private static ClientResponse withBody(ClientResponse response, Flux<DataBuffer> body) {
+        return withBody(response, response.statusCode(), body);
+    }
+
+    private static ClientResponse withBody(ClientResponse response, HttpStatusCode status, Flux<DataBuffer> body) {
+        return ClientResponse.create(status, response.strategies())
+                .headers(headers -> headers.addAll(response.headers().asHttpHeaders()))
+                .cookies(cookies -> cookies.addAll(response.cookies()))
+                .request(response.request())
+                .body(body)
+                .build();
+    }
+
+    /**
+     * Forget the validators for a key, e.g. because processing its last body failed.
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("notModified", notModified.get());
+        stats.put("identicalBodies", identicalBodies.get());
+        stats.put("changed", changed.get());
+        stats.put("tooLargeToCompare", tooLargeToCompare.get());
+        return stats;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer byteBuffer = iterator.next();
+                digest.update(byteBuffer);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final byte[] bodyHash;
+
+        private Entry(String etag, String lastModified, byte[] bodyHash) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.bodyHash = bodyHash;
+        }
+    }
+}
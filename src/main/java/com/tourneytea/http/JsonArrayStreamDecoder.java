@@ -0,0 +1,176 @@
+package com.tourneytea.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the elements of one JSON array inside a response body as the bytes
+ * arrive, using Jackson's non-blocking parser. Only a single element is held in
+ * memory at a time, so there is no limit on the overall body size.
+ */
+public class JsonArrayStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Emit each object of the first array found under {@code arrayField}, bound to {@code type}.
+     * Integer fields found outside the array (e.g. totalRecords) are put into {@code scalars}.
+     */
+    public <T> Flux<T> decode(Flux<DataBuffer> body, String arrayField, Class<T> type, Map<String, Long> scalars) {
+        return Flux.defer(() -> {
+            State<T> state = new State<>(arrayField, type, scalars);
+            return body
+                    .concatMapIterable(buffer -> {
+                        try {
+                            return state.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(state.endOfInput())))
+                    .doFinally(signal -> state.close());
+        });
+    }
+
+    private final class State<T> {
+        private final String arrayField;
+        private final Class<T> type;
+        private final Map<String, Long> scalars;
+        private final JsonParser parser;
+
+        private int depth;
+        private int arrayDepth = -1;
+        private boolean arrayDone;
+        private String lastField;
+
+        private TokenBuffer element;
+        private int elementDepth;
+
+        State(String arrayField, Class<T> type, Map<String, Long> scalars) {
+            this.arrayField = arrayField;
+            this.type = type;
+            this.scalars = scalars;
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<T> endOfInput() {
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                List<T> out = drain();
+                if (element != null || depth != 0) {
+                    throw new IOException("Unexpected end of JSON input");
+                }
+                return out;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+
+        private List<T> drain() throws IOException {
+            List<T> out = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (element != null) {
+                    copyElementToken(token, out);
+                } else {
+                    handleToken(token);
+                }
+            }
+            return out;
+        }
+
+        private void copyElementToken(JsonToken token, List<T> out) throws IOException {
+            element.copyCurrentEvent(parser);
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                elementDepth++;
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                elementDepth--;
+                if (elementDepth == 0) {
+                    try (JsonParser elementParser = element.asParser(objectMapper)) {
+                        out.add(objectMapper.readValue(elementParser, type));
+                    }
+                    element = null;
+                }
+            }
+        }
+
+        private void handleToken(JsonToken token) throws IOException {
+            String field = lastField;
+            lastField = null;
+
+            switch (token) {
+                case FIELD_NAME -> lastField = parser.currentName();
+                case START_ARRAY -> {
+                    depth++;
+                    if (!arrayDone && arrayDepth < 0 && arrayField.equals(field)) {
+                        arrayDepth = depth;
+                    }
+                }
+                case END_ARRAY -> {
+                    if (depth == arrayDepth) {
+                        arrayDepth = -1;
+                        arrayDone = true;
+                    }
+                    depth--;
+                }
+                case START_OBJECT -> {
+                    if (depth == arrayDepth) {
+                        element = new TokenBuffer(parser);
+                        element.copyCurrentEvent(parser);
+                        elementDepth = 1;
+                    } else {
+                        depth++;
+                    }
+                }
+                case END_OBJECT -> depth--;
+                case VALUE_NUMBER_INT -> {
+                    if (field != null && scalars != null) {
+                        scalars.put(field, parser.getLongValue());
+                    }
+                }
+                default -> {
+                    // other values outside the array are not needed
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.tourneytea.http;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Frames a text/event-stream body into events straight from the received bytes.
+ * Lines and event data are collected in buffers that are reused across events,
+ * and the data is handed to the {@link FrameHandler} as a slice of that buffer,
+ * so no Strings are built per event. One decoder holds the state of one
+ * connection and is not thread-safe.
+ */
+public class SseFrameDecoder {
+
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT = "event".getBytes(StandardCharsets.US_ASCII);
+    private static final String DEFAULT_EVENT = "message";
+
+    /**
+     * Receives one complete event. {@code data} is only valid during the call.
+     */
+    @FunctionalInterface
+    public interface FrameHandler {
+        void onFrame(String event, byte[] data, int offset, int length);
+    }
+
+    private final byte[] chunk = new byte[8192];
+    private byte[] line = new byte[1024];
+    private int lineLength;
+    private byte[] data = new byte[4096];
+    private int dataLength;
+    private boolean hasData;
+    private String event;
+    private String lastEvent;
+
+    public void feed(DataBuffer buffer, FrameHandler handler) {
+        int remaining;
+        while ((remaining = buffer.readableByteCount()) > 0) {
+            int n = Math.min(remaining, chunk.length);
+            buffer.read(chunk, 0, n);
+            feed(chunk, 0, n, handler);
+        }
+    }
+
+    public void feed(byte[] bytes, int offset, int length, FrameHandler handler) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '\n') {
+                int len = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                onLine(len, handler);
+                lineLength = 0;
+            } else {
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[lineLength++] = b;
+            }
+        }
+    }
+
+    private void onLine(int length, FrameHandler handler) {
+        if (length == 0) {
+            dispatch(handler);
+            return;
+        }
+        if (line[0] == ':') {
+            return; // comment / keepalive
+        }
+        if (line[0] == '{') {
+            // Bare JSON line without SSE fields, delivered as its own event
+            dataLength = 0;
+            appendData(0, length);
+            hasData = true;
+            dispatch(handler);
+            return;
+        }
+
+        int colon = indexOf(line, length, (byte) ':');
+        int nameLength = colon < 0 ? length : colon;
+        int valueStart = colon < 0 ? length : colon + 1;
+        if (valueStart < length && line[valueStart] == ' ') {
+            valueStart++;
+        }
+
+        if (nameEquals(DATA, nameLength)) {
+            if (hasData) {
+                appendByte((byte) '\n');
+            }
+            appendData(valueStart, length - valueStart);
+            hasData = true;
+        } else if (nameEquals(EVENT, nameLength)) {
+            event = eventName(valueStart, length - valueStart);
+        }
+        // id and retry are not used by the live score feed
+    }
+
+    private void dispatch(FrameHandler handler) {
+        if (hasData) {
+            handler.onFrame(event != null ? event : DEFAULT_EVENT, data, 0, dataLength);
+        }
+        hasData = false;
+        dataLength = 0;
+        event = null;
+    }
+
+    /**
+     * The feed uses a handful of event names, so the last one is reused while the
+     * bytes match instead of decoding a new String for every event.
+     */
+    private String eventName(int offset, int length) {
+        if (lastEvent == null || lastEvent.length() != length || !regionMatches(lastEvent, offset, length)) {
+            lastEvent = new String(line, offset, length, StandardCharsets.UTF_8);
+        }
+        return lastEvent;
+    }
+
+    private boolean regionMatches(String value, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != line[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean nameEquals(byte[] name, int length) {
+        if (name.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line[i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendData(int offset, int length) {
+        ensureData(length);
+        System.arraycopy(line, offset, data, dataLength, length);
+        dataLength += length;
+    }
+
+    private void appendByte(byte b) {
+        ensureData(1);
+        data[dataLength++] = b;
+    }
+
+    private void ensureData(int extra) {
+        if (dataLength + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + extra));
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte b) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,485 @@
+package com.tourneytea.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Delivers /topic messages to STOMP subscribers in place of the simple broker.
+ *
+ * SUBSCRIBE, UNSUBSCRIBE and DISCONNECT frames are picked up from the client
+ * inbound channel; subscriptions to /topic destinations are kept here and not
+ * passed on to the simple broker. Because the broker never sees those
+ * subscriptions, /topic messages sent through the broker channel (by
+ * SimpMessagingTemplate or @SendTo) are taken over too and fanned out from
+ * here, so they still reach subscribers. Destinations are matched exactly. Subscribers
+ * of a topic are held in a concurrent set, so publishing never takes a lock that
+ * subscribing clients also need.
+ *
+ * A published payload is serialized to JSON once and the same bytes are queued
+ * for every subscriber. Each session has its own bounded queue, drained by a
+ * small shared pool of sender threads, one session at a time per thread, so
+ * a slow client only holds up its own messages. When a session's queue is
+ * full its oldest message is dropped; the version numbers on match deltas let
+ * the client notice and fetch a snapshot. A session that keeps a full queue for
+ * {@code slow-consumer-drop-limit} messages in a row is sent a STOMP ERROR and
+ * disconnected.
+ *
+ * Destinations can have a snapshot source. A new subscriber is then sent the
+ * current state first, ahead of anything already queued for its session.
+ * The snapshot is read after the subscription is registered, so no update
+ * published meanwhile can fall between the two.
+ */
+@Slf4j
+@Component
+public class TopicFanout implements DisposableBean {
+
+    public static final String TOPIC_PREFIX = "/topic/";
+
+    // Messages a sender sends for one session before giving other sessions a turn
+    private static final int SEND_BATCH = 64;
+
+    private final ObjectMapper objectMapper;
+    private final MessageHandler target;
+    private final int queueCapacity;
+    private final int dropLimit;
+    private final int senderThreads;
+    private final ExecutorService senders;
+
+    private final Map<String, Set<Subscription>> topics = new ConcurrentHashMap<>();
+    private final Map<String, Outbox> sessions = new ConcurrentHashMap<>();
+    // Destination prefix to the current state for a destination under it, if there is any
+    private final Map<String, Function<String, Optional<?>>> snapshotSources = new ConcurrentHashMap<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong slowConsumersClosed = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+
+    @Autowired
+    public TopicFanout(
+            ObjectMapper objectMapper,
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("brokerChannel") AbstractSubscribableChannel brokerChannel,
+            @Qualifier("subProtocolWebSocketHandler") WebSocketHandler subProtocolWebSocketHandler,
+            @Value("${tourneytea.websocket.sender-threads:4}") int senderThreads,
+            @Value("${tourneytea.websocket.session-queue-capacity:256}") int queueCapacity,
+            @Value("${tourneytea.websocket.slow-consumer-drop-limit:512}") int dropLimit) {
+        this(objectMapper, (MessageHandler) subProtocolWebSocketHandler, senderThreads, queueCapacity, dropLimit);
+        clientInboundChannel.addInterceptor(subscriptionInterceptor());
+        brokerChannel.addInterceptor(brokerInterceptor());
+    }
+
+    TopicFanout(ObjectMapper objectMapper, MessageHandler target, int senderThreads, int queueCapacity, int dropLimit) {
+        this.objectMapper = objectMapper;
+        this.target = target;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.dropLimit = Math.max(1, dropLimit);
+        this.senderThreads = Math.max(1, senderThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(this.senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-fanout-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Serialize a payload once and queue it for every subscriber of the destination.
+     *
+     * @return the number of sessions it was queued for
+     */
+    public int publish(String destination, Object payload) {
+        Set<Subscription> subscribers = topics.get(destination);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return 0;
+        }
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize message for {}", destination, e);
+            return 0;
+        }
+        return fanOut(subscribers, new Payload(destination, bytes));
+    }
+
+    private int fanOut(Set<Subscription> subscribers, Payload message) {
+        published.incrementAndGet();
+
+        int queued = 0;
+        for (Subscription subscription : subscribers) {
+            if (subscription.outbox().offer(message, subscription.id())) {
+                queued++;
+            }
+        }
+        enqueued.addAndGet(queued);
+        return queued;
+    }
+
+    /**
+     * Send new subscribers of destinations under {@code prefix} the state the source
+     * returns for the destination, before any published message.
+     */
+    public void registerSnapshotSource(String prefix, Function<String, Optional<?>> source) {
+        snapshotSources.put(prefix, source);
+    }
+
+    public int subscriberCount(String destination) {
+        Set<Subscription> subscribers = topics.get(destination);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    /**
+     * Watches the client inbound channel for subscription changes. Subscriptions
+     * to /topic destinations are taken over and not passed on.
+     */
+    ChannelInterceptor subscriptionInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                if (type == null) {
+                    return message;
+                }
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                switch (type) {
+                    case SUBSCRIBE -> {
+                        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                        if (destination != null && destination.startsWith(TOPIC_PREFIX)) {
+                            subscribe(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()), destination);
+                            return null;
+                        }
+                    }
+                    case UNSUBSCRIBE -> unsubscribe(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()));
+                    case DISCONNECT -> disconnect(sessionId);
+                    default -> {
+                    }
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Takes /topic messages off the broker channel and fans them out like
+     * {@link #publish}. Their payload has already been converted by the sender.
+     */
+    ChannelInterceptor brokerInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                        || destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+                    return message;
+                }
+                Set<Subscription> subscribers = topics.get(destination);
+                if (subscribers != null && !subscribers.isEmpty()) {
+                    Object payload = message.getPayload();
+                    byte[] bytes = payload instanceof byte[] raw ? raw
+                            : payload.toString().getBytes(StandardCharsets.UTF_8);
+                    fanOut(subscribers, new Payload(destination, bytes));
+                }
+                return null;
+            }
+        };
+    }
+
+    void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        Outbox outbox = sessions.computeIfAbsent(sessionId, Outbox::new);
+        String previous = outbox.subscriptions.put(subscriptionId, destination);
+        if (previous != null) {
+            removeFromTopic(previous, new Subscription(outbox, subscriptionId));
+        }
+        // Added inside compute, so a concurrent removeFromTopic cannot drop the set this lands in
+        topics.compute(destination, (key, subscribers) -> {
+            Set<Subscription> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(new Subscription(outbox, subscriptionId));
+            return set;
+        });
+        sendSnapshot(outbox, subscriptionId, destination);
+    }
+
+    private void sendSnapshot(Outbox outbox, String subscriptionId, String destination) {
+        for (Map.Entry<String, Function<String, Optional<?>>> source : snapshotSources.entrySet()) {
+            if (!destination.startsWith(source.getKey())) {
+                continue;
+            }
+            try {
+                Optional<?> snapshot = source.getValue().apply(destination);
+                if (snapshot.isPresent()) {
+                    outbox.offerFirst(new Payload(destination, objectMapper.writeValueAsBytes(snapshot.get())), subscriptionId);
+                    snapshots.incrementAndGet();
+                }
+            } catch (Exception e) {
+                log.error("Could not send snapshot of {} to session {}", destination, outbox.sessionId, e);
+            }
+            return;
+        }
+    }
+
+    void unsubscribe(String sessionId, String subscriptionId) {
+        Outbox outbox = sessionId != null ? sessions.get(sessionId) : null;
+        if (outbox == null || subscriptionId == null) {
+            return;
+        }
+        String destination = outbox.subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            removeFromTopic(destination, new Subscription(outbox, subscriptionId));
+        }
+    }
+
+    void disconnect(String sessionId) {
+        Outbox outbox = sessionId != null ? sessions.remove(sessionId) : null;
+        if (outbox == null) {
+            return;
+        }
+        outbox.closed = true;
+        outbox.subscriptions.forEach((subscriptionId, destination) ->
+                removeFromTopic(destination, new Subscription(outbox, subscriptionId)));
+        outbox.subscriptions.clear();
+    }
+
+    private void removeFromTopic(String destination, Subscription subscription) {
+        topics.computeIfPresent(destination, (key, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void closeSlowConsumer(Outbox outbox) {
+        if (outbox.closed) {
+            return;
+        }
+        disconnect(outbox.sessionId);
+        slowConsumersClosed.incrementAndGet();
+        log.warn("Disconnecting WebSocket session {}: its queue stayed full for {} messages", outbox.sessionId, dropLimit);
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.ERROR);
+        accessor.setSessionId(outbox.sessionId);
+        accessor.setMessage("Disconnected: not keeping up with updates");
+        Message<byte[]> error = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        try {
+            // The session's own sender may be stuck writing to it, so this goes on another task
+            senders.execute(() -> send(error));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void send(Message<byte[]> message) {
+        try {
+            target.handleMessage(message);
+            sent.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.debug("Failed to send to WebSocket session {}", SimpMessageHeaderAccessor.getSessionId(message.getHeaders()), e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int subscriptions = 0;
+        int queued = 0;
+        for (Outbox outbox : sessions.values()) {
+            subscriptions += outbox.subscriptions.size();
+            queued += outbox.depth();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("topics", topics.size());
+        stats.put("subscriptions", subscriptions);
+        stats.put("senderThreads", senderThreads);
+        stats.put("sessionQueueCapacity", queueCapacity);
+        stats.put("published", published.get());
+        stats.put("snapshotsOnSubscribe", snapshots.get());
+        stats.put("enqueued", enqueued.get());
+        stats.put("sent", sent.get());
+        stats.put("queued", queued);
+        stats.put("maxQueueDepth", maxQueueDepth.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failed", failed.get());
+        stats.put("slowConsumersDisconnected", slowConsumersClosed.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /** Serialized message shared by every session it is queued for */
+    private record Payload(String destination, byte[] bytes) {
+    }
+
+    private record Subscription(Outbox outbox, String id) {
+    }
+
+    /**
+     * Per-session ring buffer of messages waiting to be sent. At most one sender
+     * works on a session at a time, which keeps its messages in order.
+     */
+    private final class Outbox implements Runnable {
+        private final String sessionId;
+        // Subscription id to destination
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+        private final Payload[] payloads = new Payload[queueCapacity];
+        private final String[] subscriptionIds = new String[queueCapacity];
+        private int head;
+        private int size;
+        private int consecutiveDrops;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Outbox(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        /**
+         * @return false if the session is closed
+         */
+        boolean offer(Payload payload, String subscriptionId) {
+            boolean slow;
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                if (size == payloads.length) {
+                    // Drop the oldest so the client gets the newest state once it catches up
+                    head = (head + 1) % payloads.length;
+                    size--;
+                    dropped.incrementAndGet();
+                    consecutiveDrops++;
+                } else {
+                    consecutiveDrops = 0;
+                }
+                int tail = (head + size) % payloads.length;
+                payloads[tail] = payload;
+                subscriptionIds[tail] = subscriptionId;
+                size++;
+                slow = consecutiveDrops >= dropLimit;
+                if (size > maxQueueDepth.get()) {
+                    maxQueueDepth.accumulateAndGet(size, Math::max);
+                }
+            }
+            if (slow) {
+                closeSlowConsumer(this);
+                return true;
+            }
+            schedule();
+            return true;
+        }
+
+        /**
+         * Queue a message ahead of everything waiting. If the queue is full, the
+         * message at the front is replaced.
+         */
+        void offerFirst(Payload payload, String subscriptionId) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (size == payloads.length) {
+                    dropped.incrementAndGet();
+                } else {
+                    head = (head - 1 + payloads.length) % payloads.length;
+                    size++;
+                }
+                payloads[head] = payload;
+                subscriptionIds[head] = subscriptionId;
+            }
+            schedule();
+        }
+
+        synchronized int depth() {
+            return size;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < SEND_BATCH; i++) {
+                Payload payload;
+                String subscriptionId;
+                synchronized (this) {
+                    if (size == 0 || closed) {
+                        break;
+                    }
+                    payload = payloads[head];
+                    subscriptionId = subscriptionIds[head];
+                    payloads[head] = null;
+                    subscriptionIds[head] = null;
+                    head = (head + 1) % payloads.length;
+                    size--;
+                }
+                send(message(payload, subscriptionId));
+            }
+            scheduled.set(false);
+            // Re-check after clearing the flag, so a message queued meanwhile is not stranded
+            if (!closed && depth() > 0) {
+                schedule();
+            }
+        }
+
+        private Message<byte[]> message(Payload payload, String subscriptionId) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(subscriptionId);
+            accessor.setDestination(payload.destination());
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(payload.bytes(), accessor.getMessageHeaders());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tourneytea.model;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Status of a single game within a match. Stored on Match by its
+ * {@link #normalize normalized} name, whether it came from the ticker or the
+ * live feed.
+ *
+ * The feeds may send statuses that are not listed here, and those are kept
+ * rather than dropped. Every normalized status gets a small int code for score
+ * slots: the listed statuses use their ordinals, and any other status gets the
+ * next free code the first time it is seen.
+ */
+public enum GameStatus {
+    NOT_STARTED,
+    IN_PROGRESS,
+    COMPLETED;
+
+    private static final GameStatus[] STATUSES = values();
+
+    // Bounds the table, so a misbehaving feed cannot grow it without limit
+    private static final int MAX_CODES = 256;
+
+    private static final Map<String, Integer> CODES = new ConcurrentHashMap<>();
+    private static final List<String> NAMES = new CopyOnWriteArrayList<>();
+
+    static {
+        for (GameStatus status : STATUSES) {
+            CODES.put(status.name(), status.ordinal());
+            NAMES.add(status.name());
+        }
+    }
+
+    /**
+     * A status as the feeds send it, upper-cased and trimmed, with spaces or
+     * dashes turned into underscores.
+     *
+     * @return the normalized status, or null for null or blank values
+     */
+    public static String normalize(String value) {
+        if (value == null || CODES.containsKey(value)) {
+            return value;
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Parse a status as the feeds send it.
+     *
+     * @return the listed status, or null for null, empty or unlisted values
+     */
+    public static GameStatus fromWire(String value) {
+        String normalized = normalize(value);
+        if (normalized == null) {
+            return null;
+        }
+        Integer code = CODES.get(normalized);
+        return code != null && code < STATUSES.length ? STATUSES[code] : null;
+    }
+
+    /**
+     * The code of a status as the feeds send it, interning statuses not seen before.
+     *
+     * @return the code, or -1 for null or blank values, or once the table is full
+     */
+    public static int code(String value) {
+        String normalized = normalize(value);
+        if (normalized == null) {
+            return -1;
+        }
+        Integer code = CODES.get(normalized);
+        return code != null ? code : intern(normalized);
+    }
+
+    private static synchronized int intern(String normalized) {
+        Integer code = CODES.get(normalized);
+        if (code != null) {
+            return code;
+        }
+        if (NAMES.size() >= MAX_CODES) {
+            return -1;
+        }
+        NAMES.add(normalized);
+        CODES.put(normalized, NAMES.size() - 1);
+        return NAMES.size() - 1;
+    }
+
+    /** The normalized status a code stands for */
+    public static String nameOf(int code) {
+        return NAMES.get(code);
+    }
+}
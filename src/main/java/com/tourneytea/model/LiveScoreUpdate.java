@@ -1,10 +1,13 @@
 package com.tourneytea.model;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -12,36 +15,9 @@ import java.time.LocalDateTime;
 public class LiveScoreUpdate {
     private String matchUuid;
 
-    // Server info
-    private Integer server;
-    private Integer serverFromTeam;
-    private Integer currentServingNumber;
-
-    // Match status
-    private Integer matchStatus;
-    private Integer matchCompletedType;
-    private Integer winner;
-    private Integer currentGame;
-
-    // Game scores
-    private Integer teamOneGameOneScore;
-    private Integer teamOneGameTwoScore;
-    private Integer teamOneGameThreeScore;
-    private Integer teamOneGameFourScore;
-    private Integer teamOneGameFiveScore;
-
-    private Integer teamTwoGameOneScore;
-    private Integer teamTwoGameTwoScore;
-    private Integer teamTwoGameThreeScore;
-    private Integer teamTwoGameFourScore;
-    private Integer teamTwoGameFiveScore;
-
-    // Game status
-    private String gameOneStatus;
-    private String gameTwoStatus;
-    private String gameThreeStatus;
-    private String gameFourStatus;
-    private String gameFiveStatus;
+    // Scores, statuses and server info, packed
+    @JsonIgnore
+    private ScoreState score = new ScoreState();
 
     // Court info
     private String courtUuid;
@@ -68,4 +44,44 @@ public class LiveScoreUpdate {
     private LocalDateTime timestamp;
     private String eventType;
     private Object rawData;
-}
\ No newline at end of file
+
+    // Live connection the update arrived on; every (re)connect gets a higher number
+    @JsonIgnore
+    private long connection;
+
+    /**
+     * Overlay a later partial update for the same match onto this one: fields the
+     * newer update carries win, fields it leaves null keep their earlier value.
+     */
+    public void mergeFrom(LiveScoreUpdate newer) {
+        score.mergeFrom(newer.score);
+        courtUuid = latest(newer.courtUuid, courtUuid);
+        courtTitle = latest(newer.courtTitle, courtTitle);
+        teamOnePlayerOneFirstName = latest(newer.teamOnePlayerOneFirstName, teamOnePlayerOneFirstName);
+        teamOnePlayerOneLastName = latest(newer.teamOnePlayerOneLastName, teamOnePlayerOneLastName);
+        teamOnePlayerTwoFirstName = latest(newer.teamOnePlayerTwoFirstName, teamOnePlayerTwoFirstName);
+        teamOnePlayerTwoLastName = latest(newer.teamOnePlayerTwoLastName, teamOnePlayerTwoLastName);
+        teamTwoPlayerOneFirstName = latest(newer.teamTwoPlayerOneFirstName, teamTwoPlayerOneFirstName);
+        teamTwoPlayerOneLastName = latest(newer.teamTwoPlayerOneLastName, teamTwoPlayerOneLastName);
+        teamTwoPlayerTwoFirstName = latest(newer.teamTwoPlayerTwoFirstName, teamTwoPlayerTwoFirstName);
+        teamTwoPlayerTwoLastName = latest(newer.teamTwoPlayerTwoLastName, teamTwoPlayerTwoLastName);
+        localDateMatchStart = latest(newer.localDateMatchStart, localDateMatchStart);
+        localDateMatchCompleted = latest(newer.localDateMatchCompleted, localDateMatchCompleted);
+        localDateMatchPlannedStart = latest(newer.localDateMatchPlannedStart, localDateMatchPlannedStart);
+        localDateMatchAssignedToCourt = latest(newer.localDateMatchAssignedToCourt, localDateMatchAssignedToCourt);
+        timestamp = newer.timestamp;
+        eventType = newer.eventType;
+        rawData = newer.rawData;
+        connection = newer.connection;
+    }
+
+    /** The score slots this update carries, flattened into the JSON object */
+    @JsonAnyGetter
+    public Map<String, Object> scoreFields() {
+        return score.toMap();
+    }
+
+    private static <T> T latest(T newer, T current) {
+        return newer != null ? newer : current;
+    }
+}
@@ -3,6 +3,7 @@ package com.tourneytea.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -10,7 +11,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "matches")
+// Keyed on match_uuid after the filter so list pages can seek straight to their cursor
+@Table(name = "matches", indexes = {
+        @Index(name = "idx_matches_tournament", columnList = "tournament_id, match_uuid"),
+        @Index(name = "idx_matches_status", columnList = "match_status, match_uuid")
+})
 public class Match {
     @Id
     @Column(name = "match_uuid")
@@ -34,6 +39,9 @@ public class Match {
     @Column(name = "court_title")
     private String courtTitle;
 
+    @Column(name = "court_uuid")
+    private String courtUuid;
+
     // Team 1 Players
     @Column(name = "team_one_player_one_uuid")
     private String teamOnePlayerOneUuid;
@@ -113,6 +121,12 @@ public class Match {
     @Column(name = "game_three_status")
     private String gameThreeStatus;
 
+    @Column(name = "game_four_status")
+    private String gameFourStatus;
+
+    @Column(name = "game_five_status")
+    private String gameFiveStatus;
+
     // Timing
     @Column(name = "local_date_match_start")
     private LocalDateTime localDateMatchStart;
@@ -138,8 +152,10 @@ public class Match {
     @Column(name = "last_update")
     private LocalDateTime lastUpdate;
 
-    @Column(columnDefinition = "TEXT")
-    private String rawData;
+    // Fingerprint of the last ticker payload this row was built from
+    @JsonIgnore
+    @Column(name = "content_hash")
+    private Long contentHash;
 
     // Computed field for easier querying
     public boolean isLive() {
@@ -0,0 +1,86 @@
+package com.tourneytea.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Match fields that live updates can change. Each field has a fixed bit, so the
+ * set of fields changed by an update fits in one long. Bit positions are sent to
+ * clients in deltas, so new fields are only ever appended.
+ */
+public enum MatchField {
+    TEAM_ONE_GAME_ONE_SCORE("teamOneGameOneScore", Match::getTeamOneGameOneScore),
+    TEAM_TWO_GAME_ONE_SCORE("teamTwoGameOneScore", Match::getTeamTwoGameOneScore),
+    TEAM_ONE_GAME_TWO_SCORE("teamOneGameTwoScore", Match::getTeamOneGameTwoScore),
+    TEAM_TWO_GAME_TWO_SCORE("teamTwoGameTwoScore", Match::getTeamTwoGameTwoScore),
+    TEAM_ONE_GAME_THREE_SCORE("teamOneGameThreeScore", Match::getTeamOneGameThreeScore),
+    TEAM_TWO_GAME_THREE_SCORE("teamTwoGameThreeScore", Match::getTeamTwoGameThreeScore),
+    TEAM_ONE_GAME_FOUR_SCORE("teamOneGameFourScore", Match::getTeamOneGameFourScore),
+    TEAM_TWO_GAME_FOUR_SCORE("teamTwoGameFourScore", Match::getTeamTwoGameFourScore),
+    TEAM_ONE_GAME_FIVE_SCORE("teamOneGameFiveScore", Match::getTeamOneGameFiveScore),
+    TEAM_TWO_GAME_FIVE_SCORE("teamTwoGameFiveScore", Match::getTeamTwoGameFiveScore),
+    MATCH_STATUS("matchStatus", Match::getMatchStatus),
+    WINNER("winner", Match::getWinner),
+    SERVER("server", Match::getServer),
+    SERVER_FROM_TEAM("serverFromTeam", Match::getServerFromTeam),
+    CURRENT_SERVING_NUMBER("currentServingNumber", Match::getCurrentServingNumber),
+    GAME_ONE_STATUS("gameOneStatus", Match::getGameOneStatus),
+    GAME_TWO_STATUS("gameTwoStatus", Match::getGameTwoStatus),
+    GAME_THREE_STATUS("gameThreeStatus", Match::getGameThreeStatus),
+    COURT_TITLE("courtTitle", Match::getCourtTitle),
+    LOCAL_DATE_MATCH_START("localDateMatchStart", Match::getLocalDateMatchStart),
+    LOCAL_DATE_MATCH_COMPLETED("localDateMatchCompleted", Match::getLocalDateMatchCompleted),
+    MATCH_COMPLETED_TYPE("matchCompletedType", Match::getMatchCompletedType),
+    GAME_FOUR_STATUS("gameFourStatus", Match::getGameFourStatus),
+    GAME_FIVE_STATUS("gameFiveStatus", Match::getGameFiveStatus),
+    COURT_UUID("courtUuid", Match::getCourtUuid);
+
+    private static final MatchField[] FIELDS = values();
+
+    /** Every field's bit set */
+    public static final long ALL = (1L << FIELDS.length) - 1;
+
+    private final String jsonName;
+    private final Function<Match, Object> getter;
+
+    MatchField(String jsonName, Function<Match, Object> getter) {
+        this.jsonName = jsonName;
+        this.getter = getter;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * The bits of the fields whose values differ between two matches.
+     */
+    public static long changed(Match before, Match after) {
+        long changed = 0;
+        for (MatchField field : FIELDS) {
+            if (!Objects.equals(field.getter.apply(before), field.getter.apply(after))) {
+                changed |= field.bit();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The current values of the fields whose bits are set in {@code mask}, keyed by JSON name.
+     */
+    public static Map<String, Object> values(Match match, long mask) {
+        Map<String, Object> values = new LinkedHashMap<>(Long.bitCount(mask) * 2);
+        for (MatchField field : FIELDS) {
+            if ((mask & field.bit()) != 0) {
+                values.put(field.jsonName, field.getter.apply(match));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,25 @@
+package com.tourneytea.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * Upstream ticker JSON for a match, deflate-compressed. Kept out of the matches
+ * table so it is only read when explicitly requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "match_raw_data")
+public class MatchRawData {
+    @Id
+    @Column(name = "match_uuid")
+    private String matchUuid;
+
+    @Lob
+    @Column(name = "payload")
+    private byte[] payload;
+}
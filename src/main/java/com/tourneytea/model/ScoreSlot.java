@@ -0,0 +1,124 @@
+package com.tourneytea.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The numeric parts of a live update, each with a fixed index into
+ * {@link ScoreState}. Game statuses are held as their {@link GameStatus#code code}.
+ * Every slot that is stored on Match maps to the {@link MatchField} it changes.
+ */
+public enum ScoreSlot {
+    TEAM_ONE_GAME_ONE_SCORE(MatchField.TEAM_ONE_GAME_ONE_SCORE, Match::getTeamOneGameOneScore, Match::setTeamOneGameOneScore),
+    TEAM_TWO_GAME_ONE_SCORE(MatchField.TEAM_TWO_GAME_ONE_SCORE, Match::getTeamTwoGameOneScore, Match::setTeamTwoGameOneScore),
+    TEAM_ONE_GAME_TWO_SCORE(MatchField.TEAM_ONE_GAME_TWO_SCORE, Match::getTeamOneGameTwoScore, Match::setTeamOneGameTwoScore),
+    TEAM_TWO_GAME_TWO_SCORE(MatchField.TEAM_TWO_GAME_TWO_SCORE, Match::getTeamTwoGameTwoScore, Match::setTeamTwoGameTwoScore),
+    TEAM_ONE_GAME_THREE_SCORE(MatchField.TEAM_ONE_GAME_THREE_SCORE, Match::getTeamOneGameThreeScore, Match::setTeamOneGameThreeScore),
+    TEAM_TWO_GAME_THREE_SCORE(MatchField.TEAM_TWO_GAME_THREE_SCORE, Match::getTeamTwoGameThreeScore, Match::setTeamTwoGameThreeScore),
+    TEAM_ONE_GAME_FOUR_SCORE(MatchField.TEAM_ONE_GAME_FOUR_SCORE, Match::getTeamOneGameFourScore, Match::setTeamOneGameFourScore),
+    TEAM_TWO_GAME_FOUR_SCORE(MatchField.TEAM_TWO_GAME_FOUR_SCORE, Match::getTeamTwoGameFourScore, Match::setTeamTwoGameFourScore),
+    TEAM_ONE_GAME_FIVE_SCORE(MatchField.TEAM_ONE_GAME_FIVE_SCORE, Match::getTeamOneGameFiveScore, Match::setTeamOneGameFiveScore),
+    TEAM_TWO_GAME_FIVE_SCORE(MatchField.TEAM_TWO_GAME_FIVE_SCORE, Match::getTeamTwoGameFiveScore, Match::setTeamTwoGameFiveScore),
+
+    MATCH_STATUS(MatchField.MATCH_STATUS, Match::getMatchStatus, Match::setMatchStatus),
+    MATCH_COMPLETED_TYPE(MatchField.MATCH_COMPLETED_TYPE, Match::getMatchCompletedType, Match::setMatchCompletedType),
+    WINNER(MatchField.WINNER, Match::getWinner, Match::setWinner),
+    // Sent by the feed but not stored on Match
+    CURRENT_GAME("currentGame"),
+
+    SERVER(MatchField.SERVER, Match::getServer, Match::setServer),
+    SERVER_FROM_TEAM(MatchField.SERVER_FROM_TEAM, Match::getServerFromTeam, Match::setServerFromTeam),
+    CURRENT_SERVING_NUMBER(MatchField.CURRENT_SERVING_NUMBER, Match::getCurrentServingNumber, Match::setCurrentServingNumber),
+
+    GAME_ONE_STATUS(MatchField.GAME_ONE_STATUS, Match::getGameOneStatus, Match::setGameOneStatus),
+    GAME_TWO_STATUS(MatchField.GAME_TWO_STATUS, Match::getGameTwoStatus, Match::setGameTwoStatus),
+    GAME_THREE_STATUS(MatchField.GAME_THREE_STATUS, Match::getGameThreeStatus, Match::setGameThreeStatus),
+    GAME_FOUR_STATUS(MatchField.GAME_FOUR_STATUS, Match::getGameFourStatus, Match::setGameFourStatus),
+    GAME_FIVE_STATUS(MatchField.GAME_FIVE_STATUS, Match::getGameFiveStatus, Match::setGameFiveStatus);
+
+    static final ScoreSlot[] SLOTS = values();
+
+    private static final Map<String, ScoreSlot> BY_JSON_NAME = new HashMap<>();
+
+    static {
+        for (ScoreSlot slot : SLOTS) {
+            BY_JSON_NAME.put(slot.jsonName, slot);
+        }
+    }
+
+    private final String jsonName;
+    private final MatchField field;
+    private final boolean status;
+    private final Function<Match, Integer> reader;
+    private final BiConsumer<Match, Integer> writer;
+
+    ScoreSlot(String jsonName) {
+        this.jsonName = jsonName;
+        this.field = null;
+        this.status = false;
+        this.reader = null;
+        this.writer = null;
+    }
+
+    ScoreSlot(MatchField field, Function<Match, Integer> getter, BiConsumer<Match, Integer> setter) {
+        this.jsonName = field.jsonName();
+        this.field = field;
+        this.status = false;
+        this.reader = getter;
+        this.writer = setter;
+    }
+
+    // Game status columns hold the normalized status name; the slot holds its code
+    ScoreSlot(MatchField field, StatusGetter getter, StatusSetter setter) {
+        this.jsonName = field.jsonName();
+        this.field = field;
+        this.status = true;
+        this.reader = match -> {
+            int code = GameStatus.code(getter.get(match));
+            return code >= 0 ? code : null;
+        };
+        this.writer = (match, code) -> setter.set(match, GameStatus.nameOf(code));
+    }
+
+    /** The slot for a field name in the live feed, or null if it is not a score slot */
+    public static ScoreSlot forJsonName(String jsonName) {
+        return BY_JSON_NAME.get(jsonName);
+    }
+
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /** The Match field this slot changes, or null if it is not stored on Match */
+    public MatchField field() {
+        return field;
+    }
+
+    public boolean isStatus() {
+        return status;
+    }
+
+    Integer read(Match match) {
+        return reader.apply(match);
+    }
+
+    void write(Match match, int value) {
+        writer.accept(match, value);
+    }
+
+    @FunctionalInterface
+    interface StatusGetter {
+        String get(Match match);
+    }
+
+    @FunctionalInterface
+    interface StatusSetter {
+        void set(Match match, String value);
+    }
+}
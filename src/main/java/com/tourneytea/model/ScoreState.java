@@ -0,0 +1,122 @@
+package com.tourneytea.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The score part of a live update packed into one int array, indexed by
+ * {@link ScoreSlot}, with a bitmask of the slots the update actually carried.
+ * Merging and diffing walk the set bits instead of comparing boxed fields one
+ * by one.
+ */
+public final class ScoreState {
+
+    private static final ScoreSlot[] SLOTS = ScoreSlot.SLOTS;
+
+    private final int[] values = new int[SLOTS.length];
+    private int present;
+
+    public boolean has(ScoreSlot slot) {
+        return (present & slot.bit()) != 0;
+    }
+
+    /** The slot's value; only meaningful if {@link #has} */
+    public int get(ScoreSlot slot) {
+        return values[slot.ordinal()];
+    }
+
+    public void set(ScoreSlot slot, int value) {
+        values[slot.ordinal()] = value;
+        present |= slot.bit();
+    }
+
+    /** The slot's normalized game status, or null if the update did not carry it */
+    public String getStatus(ScoreSlot slot) {
+        return has(slot) ? GameStatus.nameOf(values[slot.ordinal()]) : null;
+    }
+
+    public void setStatus(ScoreSlot slot, GameStatus status) {
+        set(slot, status.ordinal());
+    }
+
+    public boolean isEmpty() {
+        return present == 0;
+    }
+
+    /**
+     * Take every slot the newer state carries, keeping the rest.
+     */
+    public void mergeFrom(ScoreState newer) {
+        for (int mask = newer.present; mask != 0; mask &= mask - 1) {
+            int i = Integer.numberOfTrailingZeros(mask);
+            values[i] = newer.values[i];
+        }
+        present |= newer.present;
+    }
+
+    /**
+     * Write the carried slots that differ from the match onto it.
+     *
+     * @return the {@link MatchField} bits of the fields that changed
+     */
+    public long applyTo(Match match) {
+        long changed = 0;
+        for (int mask = present; mask != 0; mask &= mask - 1) {
+            ScoreSlot slot = SLOTS[Integer.numberOfTrailingZeros(mask)];
+            if (slot.field() == null) {
+                continue;
+            }
+            int value = values[slot.ordinal()];
+            Integer current = slot.read(match);
+            if (current == null || current != value) {
+                slot.write(match, value);
+                changed |= slot.field().bit();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The carried slots keyed by JSON name, with statuses as their names.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>(Integer.bitCount(present) * 2);
+        for (int mask = present; mask != 0; mask &= mask - 1) {
+            ScoreSlot slot = SLOTS[Integer.numberOfTrailingZeros(mask)];
+            int value = values[slot.ordinal()];
+            map.put(slot.jsonName(), slot.isStatus() ? GameStatus.nameOf(value) : value);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScoreState other) || present != other.present) {
+            return false;
+        }
+        for (int mask = present; mask != 0; mask &= mask - 1) {
+            int i = Integer.numberOfTrailingZeros(mask);
+            if (values[i] != other.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = present;
+        for (int mask = present; mask != 0; mask &= mask - 1) {
+            hash = 31 * hash + values[Integer.numberOfTrailingZeros(mask)];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -41,6 +41,4 @@ public class Tournament {
     private Double price;
     private Integer registrationCount;
 
-    @Column(columnDefinition = "TEXT")
-    private String rawData;
 }
@@ -0,0 +1,25 @@
+package com.tourneytea.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.persistence.*;
+
+/**
+ * Upstream JSON for a tournament, deflate-compressed. Kept out of the tournaments
+ * table so it is only read when explicitly requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tournament_raw_data")
+public class TournamentRawData {
+    @Id
+    @Column(name = "tournament_id")
+    private String tournamentId;
+
+    @Lob
+    @Column(name = "payload")
+    private byte[] payload;
+}
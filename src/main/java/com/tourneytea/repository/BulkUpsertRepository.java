@@ -0,0 +1,227 @@
+package com.tourneytea.repository;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import com.tourneytea.model.MatchRawData;
+import com.tourneytea.model.Tournament;
+import com.tourneytea.model.TournamentRawData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batched upserts for ticker and tournament syncs. JPA's saveAll on entities
+ * with assigned ids issues a SELECT plus an INSERT/UPDATE per row; this sends
+ * a single H2 MERGE statement per batch instead.
+ *
+ * Live match writes only touch the columns the live feed owns, so they never
+ * put back ticker columns from an older copy of the match.
+ */
+@Slf4j
+@Repository
+public class BulkUpsertRepository {
+
+    private static final Upsert<Match> MATCH_UPSERT = new Upsert<>("matches", "match_uuid", List.of(
+            column("match_uuid", Match::getMatchUuid),
+            column("tournament_id", Match::getTournamentId),
+            column("event_uuid", Match::getEventUuid),
+            column("event_title", Match::getEventTitle),
+            column("round_text", Match::getRoundText),
+            column("round_number", Match::getRoundNumber),
+            column("court_title", Match::getCourtTitle),
+            column("court_uuid", Match::getCourtUuid),
+            column("team_one_player_one_uuid", Match::getTeamOnePlayerOneUuid),
+            column("team_one_player_one_name", Match::getTeamOnePlayerOneName),
+            column("team_one_player_two_uuid", Match::getTeamOnePlayerTwoUuid),
+            column("team_one_player_two_name", Match::getTeamOnePlayerTwoName),
+            column("team_two_player_one_uuid", Match::getTeamTwoPlayerOneUuid),
+            column("team_two_player_one_name", Match::getTeamTwoPlayerOneName),
+            column("team_two_player_two_uuid", Match::getTeamTwoPlayerTwoUuid),
+            column("team_two_player_two_name", Match::getTeamTwoPlayerTwoName),
+            column("team_one_game_one_score", Match::getTeamOneGameOneScore),
+            column("team_two_game_one_score", Match::getTeamTwoGameOneScore),
+            column("team_one_game_two_score", Match::getTeamOneGameTwoScore),
+            column("team_two_game_two_score", Match::getTeamTwoGameTwoScore),
+            column("team_one_game_three_score", Match::getTeamOneGameThreeScore),
+            column("team_two_game_three_score", Match::getTeamTwoGameThreeScore),
+            column("team_one_game_four_score", Match::getTeamOneGameFourScore),
+            column("team_two_game_four_score", Match::getTeamTwoGameFourScore),
+            column("team_one_game_five_score", Match::getTeamOneGameFiveScore),
+            column("team_two_game_five_score", Match::getTeamTwoGameFiveScore),
+            column("match_status", Match::getMatchStatus),
+            column("match_completed_type", Match::getMatchCompletedType),
+            column("winner", Match::getWinner),
+            column("team_one_winning_percentage", Match::getTeamOneWinningPercentage),
+            column("game_one_status", Match::getGameOneStatus),
+            column("game_two_status", Match::getGameTwoStatus),
+            column("game_three_status", Match::getGameThreeStatus),
+            column("game_four_status", Match::getGameFourStatus),
+            column("game_five_status", Match::getGameFiveStatus),
+            column("local_date_match_start", Match::getLocalDateMatchStart),
+            column("local_date_match_planned_start", Match::getLocalDateMatchPlannedStart),
+            column("local_date_match_completed", Match::getLocalDateMatchCompleted),
+            column("local_date_match_assigned_to_court", Match::getLocalDateMatchAssignedToCourt),
+            column("server", Match::getServer),
+            column("server_from_team", Match::getServerFromTeam),
+            column("current_serving_number", Match::getCurrentServingNumber),
+            column("last_update", Match::getLastUpdate),
+            column("content_hash", Match::getContentHash)
+    ));
+
+    // The MatchField columns plus last_update, taken from the upsert so both statements bind values the same way
+    private static final Set<String> LIVE_COLUMNS = Stream.concat(
+            Arrays.stream(MatchField.values()).map(field -> columnName(field.jsonName())),
+            Stream.of("last_update")).collect(Collectors.toSet());
+    private static final Update<Match> MATCH_LIVE_UPDATE = new Update<>("matches", column("match_uuid", Match::getMatchUuid),
+            MATCH_UPSERT.columns.stream().filter(c -> LIVE_COLUMNS.contains(c.name)).toList());
+
+    private static final Upsert<Tournament> TOURNAMENT_UPSERT = new Upsert<>("tournaments", "id", List.of(
+            column("id", Tournament::getId),
+            column("title", Tournament::getTitle),
+            column("slug", Tournament::getSlug),
+            column("date_from", Tournament::getDateFrom),
+            column("date_to", Tournament::getDateTo),
+            column("location", Tournament::getLocation),
+            column("status", Tournament::getStatus),
+            column("currency", Tournament::getCurrency),
+            column("is_canceled", Tournament::getIsCanceled),
+            column("is_registration_closed", Tournament::getIsRegistrationClosed),
+            column("is_tournament_completed", Tournament::getIsTournamentCompleted),
+            column("is_prize_money", Tournament::getIsPrizeMoney),
+            column("lat", Tournament::getLat),
+            column("lng", Tournament::getLng),
+            column("logo", Tournament::getLogo),
+            column("price", Tournament::getPrice),
+            column("registration_count", Tournament::getRegistrationCount)
+    ));
+
+    private static final Upsert<MatchRawData> MATCH_RAW_UPSERT = new Upsert<>("match_raw_data", "match_uuid", List.of(
+            column("match_uuid", MatchRawData::getMatchUuid),
+            column("payload", MatchRawData::getPayload)
+    ));
+
+    private static final Upsert<TournamentRawData> TOURNAMENT_RAW_UPSERT = new Upsert<>("tournament_raw_data",
+            "tournament_id", List.of(
+            column("tournament_id", TournamentRawData::getTournamentId),
+            column("payload", TournamentRawData::getPayload)
+    ));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public BulkUpsertRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${tourneytea.persistence.upsert-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Transactional
+    public int upsertMatches(List<Match> matches, List<MatchRawData> rawData) {
+        upsert(MATCH_RAW_UPSERT, rawData);
+        return upsert(MATCH_UPSERT, matches);
+    }
+
+    /**
+     * Update the live-owned columns of existing match rows by id.
+     *
+     * @return how many of the matches had a row to update
+     */
+    @Transactional
+    public int updateLiveColumns(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        List<Column<Match>> columns = MATCH_LIVE_UPDATE.columns;
+        int[][] results = jdbcTemplate.batchUpdate(MATCH_LIVE_UPDATE.sql, matches, batchSize, (ps, match) -> {
+            for (int i = 0; i < columns.size(); i++) {
+                ps.setObject(i + 1, columns.get(i).getter.apply(match));
+            }
+            ps.setObject(columns.size() + 1, MATCH_LIVE_UPDATE.key.getter.apply(match));
+        });
+        int updated = Arrays.stream(results).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+        log.debug("Updated live columns of {} rows in {}", updated, MATCH_LIVE_UPDATE.table);
+        return updated;
+    }
+
+    @Transactional
+    public int upsertTournaments(List<Tournament> tournaments, List<TournamentRawData> rawData) {
+        upsert(TOURNAMENT_RAW_UPSERT, rawData);
+        return upsert(TOURNAMENT_UPSERT, tournaments);
+    }
+
+    private <T> int upsert(Upsert<T> upsert, List<T> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int[][] results = jdbcTemplate.batchUpdate(upsert.sql, rows, batchSize, (ps, row) -> {
+            for (int i = 0; i < upsert.columns.size(); i++) {
+                ps.setObject(i + 1, upsert.columns.get(i).getter.apply(row));
+            }
+        });
+        int written = Arrays.stream(results).mapToInt(batch -> batch.length).sum();
+        log.debug("Upserted {} rows into {}", written, upsert.table);
+        return written;
+    }
+
+    private static <T> Column<T> column(String name, Function<T, ?> getter) {
+        return new Column<>(name, getter);
+    }
+
+    // teamOneGameOneScore -> team_one_game_one_score
+    private static String columnName(String property) {
+        return property.replaceAll("([A-Z])", "_$1").toLowerCase();
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final Function<T, ?> getter;
+
+        private Column(String name, Function<T, ?> getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+    }
+
+    private static final class Upsert<T> {
+        private final String table;
+        private final List<Column<T>> columns;
+        private final String sql;
+
+        private Upsert(String table, String key, List<Column<T>> columns) {
+            this.table = table;
+            this.columns = new ArrayList<>(columns);
+            this.sql = "MERGE INTO " + table + " ("
+                    + columns.stream().map(c -> c.name).collect(Collectors.joining(", "))
+                    + ") KEY (" + key + ") VALUES ("
+                    + columns.stream().map(c -> "?").collect(Collectors.joining(", "))
+                    + ")";
+        }
+    }
+
+    private static final class Update<T> {
+        private final String table;
+        private final Column<T> key;
+        private final List<Column<T>> columns;
+        private final String sql;
+
+        private Update(String table, Column<T> key, List<Column<T>> columns) {
+            this.table = table;
+            this.key = key;
+            this.columns = new ArrayList<>(columns);
+            this.sql = "UPDATE " + table + " SET "
+                    + columns.stream().map(c -> c.name + " = ?").collect(Collectors.joining(", "))
+                    + " WHERE " + key.name + " = ?";
+        }
+    }
+}
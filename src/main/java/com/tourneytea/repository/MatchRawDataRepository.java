@@ -0,0 +1,23 @@
+package com.tourneytea.repository;
+
+import com.tourneytea.model.MatchRawData;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MatchRawDataRepository extends JpaRepository<MatchRawData, String> {
+
+    // Payloads of matches whose tournament ended before the cutoff, or whose match row is gone
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MatchRawData r WHERE " +
+            "NOT EXISTS (SELECT m.matchUuid FROM Match m WHERE m.matchUuid = r.matchUuid) " +
+            "OR r.matchUuid IN (SELECT m.matchUuid FROM Match m, Tournament t " +
+            "WHERE t.id = m.tournamentId AND t.dateTo < :cutoff)")
+    int deleteForTournamentsEndedBefore(LocalDateTime cutoff);
+}
@@ -1,14 +1,34 @@
 package com.tourneytea.repository;
 
+import com.tourneytea.dto.MatchSummary;
 import com.tourneytea.model.Tournament;
 import com.tourneytea.model.Match;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, String> {
+    String SELECT_SUMMARY = "SELECT new com.tourneytea.dto.MatchSummary(m.matchUuid, m.tournamentId, " +
+            "m.eventUuid, m.eventTitle, m.roundText, m.roundNumber, m.courtUuid, m.courtTitle, " +
+            "m.teamOnePlayerOneName, m.teamOnePlayerTwoName, m.teamTwoPlayerOneName, m.teamTwoPlayerTwoName, " +
+            "m.teamOneGameOneScore, m.teamTwoGameOneScore, m.teamOneGameTwoScore, m.teamTwoGameTwoScore, " +
+            "m.teamOneGameThreeScore, m.teamTwoGameThreeScore, m.teamOneGameFourScore, m.teamTwoGameFourScore, " +
+            "m.teamOneGameFiveScore, m.teamTwoGameFiveScore, m.matchStatus, m.winner, " +
+            "m.localDateMatchPlannedStart, m.localDateMatchStart, m.localDateMatchCompleted, m.lastUpdate) " +
+            "FROM Match m ";
+
+    // Optional list filters, then everything after the cursor in id order
+    String SUMMARY_FILTERS = "(:event IS NULL OR m.eventUuid = :event OR m.eventTitle = :event) " +
+            "AND (:round IS NULL OR m.roundText = :round OR m.roundNumber = :round) " +
+            "AND (:court IS NULL OR m.courtUuid = :court OR m.courtTitle = :court) " +
+            "AND (:status IS NULL OR m.matchStatus = :status) " +
+            "AND (:cursor IS NULL OR m.matchUuid > :cursor) " +
+            "ORDER BY m.matchUuid";
+
     List<Match> findByTournamentId(String tournamentId);
     List<Match> findByMatchStatus(Integer status);
 
@@ -17,4 +37,44 @@ public interface MatchRepository extends JpaRepository<Match, String> {
 
     @Query("SELECT m FROM Match m WHERE m.winner > 0")
     List<Match> findCompletedMatches();
+
+    long countByMatchStatus(Integer status);
+
+    @Query("SELECT COUNT(m) FROM Match m WHERE m.winner > 0")
+    long countCompletedMatches();
+
+    @Query(SELECT_SUMMARY + "WHERE m.tournamentId = :tournamentId AND " + SUMMARY_FILTERS)
+    List<MatchSummary> findSummariesByTournamentId(String tournamentId, String event, String round, String court,
+                                                   Integer status, String cursor, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE " + SUMMARY_FILTERS)
+    List<MatchSummary> findSummaries(String event, String round, String court, Integer status,
+                                     String cursor, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE m.winner > 0 AND " + SUMMARY_FILTERS)
+    List<MatchSummary> findCompletedSummaries(String event, String round, String court, Integer status,
+                                              String cursor, Limit limit);
+
+    @Query("SELECT m.matchUuid AS matchUuid, m.contentHash AS contentHash FROM Match m " +
+            "WHERE m.tournamentId = :tournamentId")
+    List<ContentHash> findContentHashesByTournamentId(String tournamentId);
+
+    @Query("SELECT m.tournamentId AS tournamentId, " +
+            "SUM(CASE WHEN m.matchStatus = 2 THEN 1 ELSE 0 END) AS liveMatches, " +
+            "SUM(CASE WHEN m.localDateMatchAssignedToCourt IS NOT NULL AND m.localDateMatchStart IS NULL " +
+            "AND (m.winner IS NULL OR m.winner = 0) THEN 1 ELSE 0 END) AS onCourtMatches " +
+            "FROM Match m WHERE m.tournamentId IN :tournamentIds GROUP BY m.tournamentId")
+    List<TournamentActivity> findTournamentActivity(Collection<String> tournamentIds);
+
+    interface TournamentActivity {
+        String getTournamentId();
+        Long getLiveMatches();
+        // Assigned to a court but not started yet
+        Long getOnCourtMatches();
+    }
+
+    interface ContentHash {
+        String getMatchUuid();
+        Long getContentHash();
+    }
 }
\ No newline at end of file
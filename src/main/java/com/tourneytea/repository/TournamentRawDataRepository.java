@@ -0,0 +1,22 @@
+package com.tourneytea.repository;
+
+import com.tourneytea.model.TournamentRawData;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TournamentRawDataRepository extends JpaRepository<TournamentRawData, String> {
+
+    // Payloads of tournaments that ended before the cutoff, or whose tournament row is gone
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TournamentRawData r WHERE " +
+            "NOT EXISTS (SELECT t.id FROM Tournament t WHERE t.id = r.tournamentId) " +
+            "OR r.tournamentId IN (SELECT t.id FROM Tournament t WHERE t.dateTo < :cutoff)")
+    int deleteForTournamentsEndedBefore(LocalDateTime cutoff);
+}
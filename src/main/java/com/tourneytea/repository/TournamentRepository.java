@@ -2,9 +2,11 @@ package com.tourneytea.repository;
 
 import com.tourneytea.model.Tournament;
 import com.tourneytea.model.Match;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -20,4 +22,23 @@ public interface TournamentRepository extends JpaRepository<Tournament, String>
             "t.dateFrom <= CURRENT_TIMESTAMP AND t.dateTo >= CURRENT_TIMESTAMP " +
             "ORDER BY t.dateFrom ASC")
     List<Tournament> findCurrentlyRunningTournaments();
+
+    @Query("SELECT t.id AS id, t.title AS title, t.slug AS slug, t.dateFrom AS dateFrom, t.dateTo AS dateTo, " +
+            "t.location AS location, t.status AS status, t.logo AS logo, " +
+            "t.isTournamentCompleted AS isTournamentCompleted FROM Tournament t " +
+            "WHERE (:status IS NULL OR t.status = :status) AND (:cursor IS NULL OR t.id > :cursor) " +
+            "ORDER BY t.id")
+    List<TournamentSummary> findSummaries(String status, String cursor, Limit limit);
+
+    interface TournamentSummary {
+        String getId();
+        String getTitle();
+        String getSlug();
+        LocalDateTime getDateFrom();
+        LocalDateTime getDateTo();
+        String getLocation();
+        String getStatus();
+        String getLogo();
+        Boolean getIsTournamentCompleted();
+    }
 }
@@ -0,0 +1,76 @@
+package com.tourneytea.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread pools that scheduled work runs on. @Scheduled methods only trigger
+ * jobs, so the shared scheduler thread is never held by a long sync.
+ * Bulk ingestion and live-subscription work get separate pools, so a slow
+ * sync can never delay subscribing to new live matches.
+ *
+ * The pools are not exposed as Executor beans, which would make Spring Boot
+ * back off from its default applicationTaskExecutor.
+ */
+@Slf4j
+@Component
+public class JobExecutors implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor ingestion;
+    private final ThreadPoolTaskExecutor live;
+
+    public JobExecutors(
+            @Value("${tourneytea.jobs.ingestion-threads:2}") int ingestionThreads,
+            @Value("${tourneytea.jobs.live-threads:1}") int liveThreads) {
+        this.ingestion = createExecutor("ingestion-", ingestionThreads, Thread.NORM_PRIORITY - 1);
+        this.live = createExecutor("live-", liveThreads, Thread.MAX_PRIORITY);
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(String prefix, int threads, int priority) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(Math.max(1, threads));
+        executor.setMaxPoolSize(Math.max(1, threads));
+        // Jobs skip overlapping runs, so a queue longer than the number of jobs is never needed
+        executor.setQueueCapacity(16);
+        executor.setThreadPriority(priority);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    public ThreadPoolTaskExecutor ingestion() {
+        return ingestion;
+    }
+
+    public ThreadPoolTaskExecutor live() {
+        return live;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ingestion", executorStats(ingestion));
+        stats.put("live", executorStats(live));
+        return stats;
+    }
+
+    private Map<String, Object> executorStats(ThreadPoolTaskExecutor executor) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("queueDepth", executor.getQueueSize());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        ingestion.shutdown();
+        live.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tourneytea.scheduler;
+
+import com.tourneytea.model.Tournament;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Decides how often a tournament's ticker is polled, based on what is
+ * happening in it right now.
+ */
+@Component
+public class MatchPollingPolicy {
+
+    private final Duration liveInterval;
+    private final Duration onCourtInterval;
+    private final Duration inProgressInterval;
+    private final Duration idleInterval;
+
+    public MatchPollingPolicy(
+            @Value("${tourneytea.polling.live-interval:PT15S}") Duration liveInterval,
+            @Value("${tourneytea.polling.on-court-interval:PT1M}") Duration onCourtInterval,
+            @Value("${tourneytea.polling.in-progress-interval:PT5M}") Duration inProgressInterval,
+            @Value("${tourneytea.polling.idle-interval:PT3H}") Duration idleInterval) {
+        this.liveInterval = liveInterval;
+        this.onCourtInterval = onCourtInterval;
+        this.inProgressInterval = inProgressInterval;
+        this.idleInterval = idleInterval;
+    }
+
+    /**
+     * @param liveMatches    matches currently being played
+     * @param onCourtMatches matches assigned to a court but not started yet
+     */
+    public Duration nextInterval(Tournament tournament, long liveMatches, long onCourtMatches, LocalDateTime now) {
+        if (liveMatches > 0) {
+            return liveInterval;
+        }
+        if (onCourtMatches > 0) {
+            return onCourtInterval;
+        }
+        if (isInDateWindow(tournament, now) && !Boolean.TRUE.equals(tournament.getIsTournamentCompleted())) {
+            return inProgressInterval;
+        }
+        return idleInterval;
+    }
+
+    private boolean isInDateWindow(Tournament tournament, LocalDateTime now) {
+        if (tournament.getDateFrom() == null || tournament.getDateTo() == null) {
+            return false;
+        }
+        // dateTo is usually midnight of the last day, so treat it as covering that whole day
+        LocalDate today = now.toLocalDate();
+        return !today.isBefore(tournament.getDateFrom().toLocalDate())
+                && !today.isAfter(tournament.getDateTo().toLocalDate());
+    }
+}
@@ -0,0 +1,98 @@
+package com.tourneytea.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A recurring job that runs on its own executor. A trigger that arrives while
+ * the previous run is still queued or running is skipped instead of piling up.
+ */
+@Slf4j
+public class MonitoredJob {
+
+    private final String name;
+    private final ThreadPoolTaskExecutor executor;
+    private final Runnable task;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile long lastDurationMillis;
+    private volatile long maxDurationMillis;
+    private volatile long lastQueueWaitMillis;
+    private volatile LocalDateTime lastStarted;
+
+    public MonitoredJob(String name, ThreadPoolTaskExecutor executor, Runnable task) {
+        this.name = name;
+        this.executor = executor;
+        this.task = task;
+    }
+
+    /**
+     * Submit a run unless one is already queued or running.
+     *
+     * @return whether a run was submitted
+     */
+    public boolean trigger() {
+        if (!pending.compareAndSet(false, true)) {
+            skipped.incrementAndGet();
+            log.debug("Job {} is still running, skipping this run", name);
+            return false;
+        }
+
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> run(submitted));
+            return true;
+        } catch (TaskRejectedException e) {
+            pending.set(false);
+            skipped.incrementAndGet();
+            log.error("Job {} was rejected by its executor", name, e);
+            return false;
+        }
+    }
+
+    private void run(long submittedNanos) {
+        long start = System.nanoTime();
+        lastQueueWaitMillis = (start - submittedNanos) / 1_000_000;
+        lastStarted = LocalDateTime.now();
+        try {
+            task.run();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.error("Job {} failed", name, e);
+        } finally {
+            long duration = (System.nanoTime() - start) / 1_000_000;
+            lastDurationMillis = duration;
+            maxDurationMillis = Math.max(maxDurationMillis, duration);
+            runs.incrementAndGet();
+            pending.set(false);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", pending.get());
+        stats.put("runs", runs.get());
+        stats.put("skipped", skipped.get());
+        stats.put("failures", failures.get());
+        stats.put("lastStarted", lastStarted);
+        stats.put("lastDurationMillis", lastDurationMillis);
+        stats.put("maxDurationMillis", maxDurationMillis);
+        stats.put("lastQueueWaitMillis", lastQueueWaitMillis);
+        return stats;
+    }
+}
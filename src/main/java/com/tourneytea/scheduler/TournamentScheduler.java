@@ -1,76 +1,203 @@
 package com.tourneytea.scheduler;
 
+import com.tourneytea.dto.TournamentSyncReport;
 import com.tourneytea.service.*;
 import com.tourneytea.repository.*;
 import com.tourneytea.model.*;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Scheduled jobs. The @Scheduled methods only trigger a {@link MonitoredJob};
+ * the work itself runs on the ingestion or live executor from {@link JobExecutors}.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TournamentScheduler {
 
-    private final PickleballApiService apiService;
+    private final SyncCoordinator syncCoordinator;
+    private final MatchIngestionService matchIngestionService;
     private final LiveScoreStreamService liveScoreService;
+    private final LiveMatchStore liveMatchStore;
+    private final MatchFingerprints matchFingerprints;
     private final TournamentRepository tournamentRepository;
     private final MatchRepository matchRepository;
+    private final MatchRawDataRepository matchRawDataRepository;
+    private final TournamentRawDataRepository tournamentRawDataRepository;
+    private final Duration rawRetention;
 
-    // Run every 30 minutes to fetch tournaments
-    @Scheduled(fixedRate = 1800000, initialDelay = 5000)
+    private final MatchPollingPolicy pollingPolicy;
+
+    private final MonitoredJob tournamentsJob;
+    private final MonitoredJob matchesJob;
+    private final MonitoredJob liveJob;
+    private final MonitoredJob rawDataJob;
+
+    // When each tournament's ticker is next due, keyed by tournament id
+    private final Map<String, LocalDateTime> nextPollAt = new ConcurrentHashMap<>();
+
+    public TournamentScheduler(
+            SyncCoordinator syncCoordinator,
+            MatchIngestionService matchIngestionService,
+            LiveScoreStreamService liveScoreService,
+            LiveMatchStore liveMatchStore,
+            MatchFingerprints matchFingerprints,
+            TournamentRepository tournamentRepository,
+            MatchRepository matchRepository,
+            MatchRawDataRepository matchRawDataRepository,
+            TournamentRawDataRepository tournamentRawDataRepository,
+            MatchPollingPolicy pollingPolicy,
+            JobExecutors executors,
+            @Value("${tourneytea.persistence.raw-retention:P14D}") Duration rawRetention) {
+        this.syncCoordinator = syncCoordinator;
+        this.matchIngestionService = matchIngestionService;
+        this.liveScoreService = liveScoreService;
+        this.liveMatchStore = liveMatchStore;
+        this.matchFingerprints = matchFingerprints;
+        this.tournamentRepository = tournamentRepository;
+        this.matchRepository = matchRepository;
+        this.matchRawDataRepository = matchRawDataRepository;
+        this.tournamentRawDataRepository = tournamentRawDataRepository;
+        this.rawRetention = rawRetention;
+        this.pollingPolicy = pollingPolicy;
+
+        this.tournamentsJob = new MonitoredJob("fetchTournaments", executors.ingestion(), this::fetchTournaments);
+        this.matchesJob = new MonitoredJob("fetchMatches", executors.ingestion(), this::fetchDueMatches);
+        this.liveJob = new MonitoredJob("connectLiveMatches", executors.live(), this::connectLiveMatches);
+        this.rawDataJob = new MonitoredJob("pruneRawData", executors.ingestion(), this::pruneRawData);
+    }
+
+    // Run every 30 minutes to fetch tournaments. Newly found tournaments are due
+    // immediately, so the next polling tick picks up their matches.
+    @Scheduled(fixedRateString = "${tourneytea.polling.tournaments-rate-ms:1800000}", initialDelay = 5000)
     public void fetchActiveTournaments() {
+        tournamentsJob.trigger();
+    }
+
+    // Check every few seconds which tournaments are due for a ticker poll
+    @Scheduled(fixedDelayString = "${tourneytea.polling.tick-ms:5000}", initialDelay = 15000)
+    public void fetchMatchesForActiveTournaments() {
+        matchesJob.trigger();
+    }
+
+    // Run every 30 seconds to check for live matches and connect to stream
+    @Scheduled(fixedRate = 30000, initialDelay = 20000)
+    public void connectToLiveMatches() {
+        liveJob.trigger();
+    }
+
+    // Run hourly to drop raw payloads of tournaments that ended more than raw-retention ago
+    @Scheduled(fixedRate = 3600000, initialDelay = 60000)
+    public void pruneRawPayloads() {
+        rawDataJob.trigger();
+    }
+
+    public List<MonitoredJob> getJobs() {
+        return List.of(tournamentsJob, matchesJob, liveJob, rawDataJob);
+    }
+
+    private void fetchTournaments() {
         log.info("Scheduled task: Fetching PPA tournaments...");
 
         try {
-            apiService.fetchAndSaveAllPPATournaments();
-
-            // After fetching tournaments, fetch matches for active ones
-            fetchMatchesForActiveTournaments();
+            syncCoordinator.syncTournaments().join();
         } catch (Exception e) {
             log.error("Error in scheduled tournament fetch", e);
         }
     }
 
-    // Run every 2 minutes to fetch matches for active tournaments
-    @Scheduled(fixedRate = 120000, initialDelay = 15000)
-    public void fetchMatchesForActiveTournaments() {
-        log.info("Scheduled task: Fetching matches for active tournaments...");
+    private void pruneRawData() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(rawRetention);
+        int matches = matchRawDataRepository.deleteForTournamentsEndedBefore(cutoff);
+        int tournaments = tournamentRawDataRepository.deleteForTournamentsEndedBefore(cutoff);
+        if (matches > 0 || tournaments > 0) {
+            log.info("Pruned raw payloads of {} matches and {} tournaments that ended before {}",
+                    matches, tournaments, cutoff);
+        }
+    }
 
+    private void fetchDueMatches() {
         try {
+            LocalDateTime now = LocalDateTime.now();
             List<Tournament> activeTournaments = tournamentRepository.findActiveTournaments();
-            log.info("Found {} active tournaments", activeTournaments.size());
 
-            for (Tournament tournament : activeTournaments) {
-                log.info("Fetching matches for tournament: {}", tournament.getTitle());
-                apiService.fetchAndSaveAllMatches(tournament.getSlug(), tournament.getId());
+            List<Tournament> due = activeTournaments.stream()
+                    .filter(t -> !nextPollAt.getOrDefault(t.getId(), LocalDateTime.MIN).isAfter(now))
+                    .collect(Collectors.toList());
+
+            // Forget tournaments that are no longer active
+            Set<String> activeIds = activeTournaments.stream().map(Tournament::getId).collect(Collectors.toSet());
+            nextPollAt.keySet().retainAll(activeIds);
+            matchFingerprints.retainTournaments(activeIds);
+
+            if (due.isEmpty()) {
+                return;
+            }
+
+            // Each sync runs on its own and schedules its tournament's next poll when it
+            // finishes, so the tick never waits for the slowest one
+            int started = 0;
+            for (Tournament tournament : due) {
+                CompletableFuture<TournamentSyncReport> sync = matchIngestionService.start(tournament);
+                // Already syncing, or at the concurrency cap: still due, so a later tick picks it up
+                if (sync != null) {
+                    started++;
+                    sync.whenComplete((report, error) -> scheduleNextPoll(tournament));
+                }
             }
+            log.info("Scheduled task: Started match syncs for {} of {} due tournaments ({} active)",
+                    started, due.size(), activeTournaments.size());
         } catch (Exception e) {
             log.error("Error fetching matches for active tournaments", e);
         }
     }
 
-    // Run every 30 seconds to check for live matches and connect to stream
-    @Scheduled(fixedRate = 30000, initialDelay = 20000)
-    public void connectToLiveMatches() {
+    private void scheduleNextPoll(Tournament tournament) {
+        try {
+            List<MatchRepository.TournamentActivity> activity =
+                    matchRepository.findTournamentActivity(List.of(tournament.getId()));
+            MatchRepository.TournamentActivity counts = activity.isEmpty() ? null : activity.get(0);
+            long live = counts != null ? counts.getLiveMatches() : 0;
+            long onCourt = counts != null ? counts.getOnCourtMatches() : 0;
+
+            LocalDateTime now = LocalDateTime.now();
+            Duration interval = pollingPolicy.nextInterval(tournament, live, onCourt, now);
+            nextPollAt.put(tournament.getId(), now.plus(interval));
+            log.debug("Next poll for {} in {} ({} live, {} on court)",
+                    tournament.getSlug(), interval, live, onCourt);
+        } catch (Exception e) {
+            log.error("Error scheduling the next poll for {}", tournament.getSlug(), e);
+        }
+    }
+
+    public Map<String, LocalDateTime> getNextPollTimes() {
+        return Map.copyOf(nextPollAt);
+    }
+
+    private void connectLiveMatches() {
         log.info("Scheduled task: Checking for live matches...");
 
         try {
             List<Match> liveMatches = matchRepository.findLiveMatches();
+            liveMatchStore.refresh(liveMatches);
 
             if (!liveMatches.isEmpty()) {
-                List<String> matchIds = liveMatches.stream()
-                        .map(Match::getMatchUuid)
-                        .collect(Collectors.toList());
-
-                log.info("Found {} live matches, connecting to stream...", matchIds.size());
-                liveScoreService.connectToLiveScores(matchIds);
+                log.info("Found {} live matches, updating stream subscriptions...", liveMatches.size());
             } else {
                 log.info("No live matches found");
             }
+            // Also called with no live matches, so shards for finished ones are closed
+            liveScoreService.connectToLiveScores(liveMatches);
         } catch (Exception e) {
             log.error("Error connecting to live matches", e);
         }
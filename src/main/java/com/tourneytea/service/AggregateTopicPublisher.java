@@ -0,0 +1,155 @@
+package com.tourneytea.service;
+
+import com.tourneytea.dto.MatchBatch;
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.messaging.TopicFanout;
+import com.tourneytea.model.Match;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Publishes per-tournament and per-court topics for scoreboard walls, so one
+ * subscription covers many matches and the message rate stays bounded however
+ * busy the venue gets.
+ *
+ * Changed matches are only noted as they come in. At most {@code aggregate-max-rate}
+ * times a second, every tournament and court with changes gets one
+ * {@link MatchBatch} holding the latest held state of each of its changed
+ * matches. A match that moved courts is sent to both. Groups without
+ * subscribers are skipped. A new subscriber first gets a batch of every held
+ * match in the group.
+ */
+@Slf4j
+@Component
+public class AggregateTopicPublisher implements DisposableBean {
+
+    public static final String TOURNAMENT_TOPIC = "/topic/tournaments/";
+    public static final String COURT_TOPIC = "/topic/courts/";
+
+    private final TopicFanout topicFanout;
+    private final LiveMatchStore liveMatchStore;
+    private final ScheduledExecutorService publisher;
+
+    // Destination to the matches changed there since the last batch
+    private final Map<String, Set<String>> changed = new ConcurrentHashMap<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong matchesSent = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public AggregateTopicPublisher(
+            TopicFanout topicFanout,
+            LiveMatchStore liveMatchStore,
+            @Value("${tourneytea.websocket.aggregate-max-rate:4}") double maxRate) {
+        this.topicFanout = topicFanout;
+        this.liveMatchStore = liveMatchStore;
+        long periodMicros = (long) (1_000_000 / Math.max(0.01, maxRate));
+        this.publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aggregate-topics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        topicFanout.registerSnapshotSource(TOURNAMENT_TOPIC, destination -> group(destination,
+                match -> destination.equals(tournamentTopic(match.getTournamentId()))));
+        topicFanout.registerSnapshotSource(COURT_TOPIC, destination -> group(destination,
+                match -> destination.equals(courtTopic(match.getCourtTitle()))));
+        this.publisher.scheduleAtFixedRate(this::publish, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Note a change to a held match for the next batch of its tournament and court.
+     *
+     * @param previous the state before the change, to notice a move between courts
+     */
+    public void matchChanged(Match previous, Match updated) {
+        mark(tournamentTopic(updated.getTournamentId()), updated.getMatchUuid());
+        mark(courtTopic(updated.getCourtTitle()), updated.getMatchUuid());
+        if (previous != null && !Objects.equals(previous.getCourtTitle(), updated.getCourtTitle())) {
+            mark(courtTopic(previous.getCourtTitle()), updated.getMatchUuid());
+        }
+    }
+
+    public static String tournamentTopic(String tournamentId) {
+        return tournamentId == null ? null : TOURNAMENT_TOPIC + tournamentId;
+    }
+
+    public static String courtTopic(String courtTitle) {
+        return courtTitle == null || courtTitle.isEmpty() ? null : COURT_TOPIC + courtTitle;
+    }
+
+    private Optional<MatchBatch> group(String destination, Predicate<Match> member) {
+        List<MatchDelta> matches = liveMatchStore.snapshots(member);
+        return matches.isEmpty() ? Optional.empty() : Optional.of(new MatchBatch(destination, matches));
+    }
+
+    private void mark(String destination, String matchUuid) {
+        if (destination != null) {
+            // Added inside compute, so publish() cannot remove the set between the lookup and the add
+            changed.compute(destination, (key, matchUuids) -> {
+                Set<String> set = matchUuids != null ? matchUuids : ConcurrentHashMap.newKeySet();
+                set.add(matchUuid);
+                return set;
+            });
+        }
+    }
+
+    void publish() {
+        try {
+            for (String destination : changed.keySet()) {
+                Set<String> matchUuids = changed.remove(destination);
+                if (matchUuids == null) {
+                    continue;
+                }
+                if (topicFanout.subscriberCount(destination) == 0) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                List<MatchDelta> matches = new ArrayList<>(matchUuids.size());
+                for (String matchUuid : matchUuids) {
+                    liveMatchStore.snapshot(matchUuid).ifPresent(matches::add);
+                }
+                if (matches.isEmpty()) {
+                    continue;
+                }
+                topicFanout.publish(destination, new MatchBatch(destination, matches));
+                batches.incrementAndGet();
+                matchesSent.addAndGet(matches.size());
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next tick picks up later changes
+            log.error("Error publishing aggregate topics", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingGroups", changed.size());
+        stats.put("batches", batches.get());
+        stats.put("matchesSent", matchesSent.get());
+        stats.put("matchesPerBatch", batches.get() == 0 ? 0.0 : (double) matchesSent.get() / batches.get());
+        stats.put("skippedWithoutSubscribers", skipped.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        publisher.shutdown();
+        publisher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
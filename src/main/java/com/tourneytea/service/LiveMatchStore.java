@@ -0,0 +1,256 @@
+package com.tourneytea.service;
+
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import com.tourneytea.repository.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory state of the matches that are currently live. While a match is in
+ * here, this copy is the authoritative one: live updates are merged against it
+ * and broadcast from it, and the database is written afterwards.
+ *
+ * Stored matches are never modified in place. A change is applied to a
+ * {@link #copyOf copy} that then replaces the stored instance, so readers on
+ * other threads always see a consistent match. Live updates come from the
+ * match's own dispatcher worker, ticker merges from the sync threads; both go
+ * through {@link #update}, which makes each change atomic.
+ *
+ * Every change clients are sent gets the next version number for that match;
+ * changes to fields they never receive keep the version as it is.
+ * Versions start from the time the match was loaded, so after an eviction and
+ * reload they carry on above the earlier ones instead of starting over.
+ *
+ * Only the {@link MatchField} values and the update time belong to the live
+ * feed. Everything else, such as player names and event details, is taken from
+ * the database or the ticker whenever they have something newer.
+ *
+ * Matches are loaded when they go live and evicted a while after they complete,
+ * or once they have left the live set and stopped receiving updates.
+ */
+@Slf4j
+@Component
+public class LiveMatchStore {
+
+    // Properties the live feed owns; a merge from the database or the ticker leaves these alone
+    private static final String[] LIVE_OWNED = Stream.concat(
+            Arrays.stream(MatchField.values()).map(MatchField::jsonName),
+            Stream.of("lastUpdate")).toArray(String[]::new);
+
+    private final MatchRepository matchRepository;
+    private final Duration evictCompletedAfter;
+    private final Duration evictIdleAfter;
+
+    private final Map<String, Match> matches = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> completedAt = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LiveMatchStore(
+            MatchRepository matchRepository,
+            @Value("${tourneytea.live.evict-completed-after:PT2M}") Duration evictCompletedAfter,
+            @Value("${tourneytea.live.evict-idle-after:PT30M}") Duration evictIdleAfter) {
+        this.matchRepository = matchRepository;
+        this.evictCompletedAfter = evictCompletedAfter;
+        this.evictIdleAfter = evictIdleAfter;
+    }
+
+    /**
+     * Bring in matches that have gone live and evict ones that are done with.
+     * Matches already held keep their live fields, since the database may not
+     * have caught up with the live updates applied here yet, but take the rest
+     * from the database.
+     */
+    public void refresh(Collection<Match> liveMatches) {
+        for (Match match : liveMatches) {
+            if (matches.putIfAbsent(match.getMatchUuid(), match) == null) {
+                loads.incrementAndGet();
+            } else {
+                merge(match);
+            }
+        }
+
+        Set<String> live = liveMatches.stream().map(Match::getMatchUuid).collect(Collectors.toSet());
+        LocalDateTime now = LocalDateTime.now();
+        matches.values().removeIf(match -> {
+            LocalDateTime completed = completedAt.get(match.getMatchUuid());
+            boolean evict = completed != null
+                    ? completed.plus(evictCompletedAfter).isBefore(now)
+                    : !live.contains(match.getMatchUuid()) && idleSince(match).plus(evictIdleAfter).isBefore(now);
+            if (evict) {
+                completedAt.remove(match.getMatchUuid());
+                versions.remove(match.getMatchUuid());
+                evictions.incrementAndGet();
+                log.debug("Evicted match {} from the live store", match.getMatchUuid());
+            }
+            return evict;
+        });
+    }
+
+    /**
+     * The held state of a match, loading it from the database if an update
+     * arrives before the match was picked up by {@link #refresh}.
+     */
+    public Optional<Match> getOrLoad(String matchUuid) {
+        Match match = matches.get(matchUuid);
+        if (match != null) {
+            hits.incrementAndGet();
+            return Optional.of(match);
+        }
+        return Optional.ofNullable(matches.computeIfAbsent(matchUuid, id -> {
+            loads.incrementAndGet();
+            return matchRepository.findById(id).orElse(null);
+        }));
+    }
+
+    public Optional<Match> get(String matchUuid) {
+        return Optional.ofNullable(matches.get(matchUuid));
+    }
+
+    /**
+     * Change the held state of a match. The change is made on a copy inside the
+     * map's compute, so changes to the same match from the live feed and from
+     * ticker merges never overwrite each other.
+     *
+     * @param change applies the change to the copy it is given and returns the
+     *               {@link MatchField} bits it changed. Fields clients never
+     *               receive may change with no bits returned; those are stored
+     *               without a new version.
+     * @return the change, if the match is held and a broadcast field changed
+     */
+    public Optional<Change> update(String matchUuid, ToLongFunction<Match> change) {
+        Change[] result = new Change[1];
+        matches.computeIfPresent(matchUuid, (id, held) -> {
+            Match copy = copyOf(held);
+            long changed = change.applyAsLong(copy);
+            if (changed != 0) {
+                // Bumped with the entry locked, so versions follow the order the changes were stored in
+                result[0] = new Change(held, copy, version(id).incrementAndGet(), changed);
+            }
+            return copy.equals(held) ? held : copy;
+        });
+        if (result[0] != null && isCompleted(result[0].updated())) {
+            completedAt.putIfAbsent(matchUuid, LocalDateTime.now());
+        }
+        return Optional.ofNullable(result[0]);
+    }
+
+    /**
+     * Take the fields the live feed does not own from a newer database or ticker row.
+     */
+    static void takeNotLiveOwned(Match newer, Match target) {
+        BeanUtils.copyProperties(newer, target, LIVE_OWNED);
+    }
+
+    private void merge(Match stored) {
+        update(stored.getMatchUuid(), held -> {
+            takeNotLiveOwned(stored, held);
+            return 0;
+        });
+    }
+
+    /**
+     * The full state of a held match with its current version.
+     */
+    public Optional<MatchDelta> snapshot(String matchUuid) {
+        return Optional.ofNullable(snapshotOf(matchUuid, match -> true));
+    }
+
+    /**
+     * Snapshots of every held match the filter accepts.
+     */
+    public List<MatchDelta> snapshots(Predicate<Match> filter) {
+        List<MatchDelta> snapshots = new ArrayList<>();
+        for (Map.Entry<String, Match> entry : matches.entrySet()) {
+            if (filter.test(entry.getValue())) {
+                MatchDelta snapshot = snapshotOf(entry.getKey(), filter);
+                if (snapshot != null) {
+                    snapshots.add(snapshot);
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    // Read with the entry locked, so the version always belongs to the state it is sent with
+    private MatchDelta snapshotOf(String matchUuid, Predicate<Match> filter) {
+        MatchDelta[] snapshot = new MatchDelta[1];
+        matches.computeIfPresent(matchUuid, (id, match) -> {
+            if (filter.test(match)) {
+                snapshot[0] = MatchDelta.snapshot(match, version(id).get());
+            }
+            return match;
+        });
+        return snapshot[0];
+    }
+
+    private AtomicLong version(String matchUuid) {
+        return versions.computeIfAbsent(matchUuid, id -> new AtomicLong(System.currentTimeMillis()));
+    }
+
+    public boolean isEmpty() {
+        return matches.isEmpty();
+    }
+
+    public List<Match> getLiveMatches() {
+        return matches.values().stream()
+                .filter(match -> Integer.valueOf(2).equals(match.getMatchStatus()))
+                .sorted(Comparator.comparing(Match::getMatchUuid))
+                .collect(Collectors.toList());
+    }
+
+    public static Match copyOf(Match match) {
+        Match copy = new Match();
+        BeanUtils.copyProperties(match, copy);
+        return copy;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("matches", matches.size());
+        stats.put("completed", completedAt.size());
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    static boolean isCompleted(Match match) {
+        return match.getWinner() != null && match.getWinner() > 0;
+    }
+
+    private static LocalDateTime idleSince(Match match) {
+        return match.getLastUpdate() != null ? match.getLastUpdate() : LocalDateTime.MIN;
+    }
+
+    /**
+     * A stored change to a held match that clients need to be sent.
+     */
+    public record Change(Match previous, Match updated, long version, long changed) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.tourneytea.service;
+
+import com.tourneytea.http.SseFrameDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * One SSE connection carrying a fixed set of matches from a single tournament.
+ * The shard reconnects on its own with exponential backoff when the stream fails
+ * or the server closes it, so a problem on one connection leaves the others alone.
+ * Every attempt gets a new connection number, which is passed along with its
+ * events so updates from a superseded connection can be recognized.
+ *
+ * A 4xx response other than 408/429 (e.g. a rejected X-Request-Matches header,
+ * 401 or 404) will not get better by retrying, so the shard stops and is left
+ * FAILED with the error in its health.
+ */
+@Slf4j
+class LiveScoreShard {
+
+    enum State { CONNECTING, CONNECTED, RETRYING, CLOSED, FAILED }
+
+    /** Receives each SSE frame with the number of the connection it arrived on */
+    @FunctionalInterface
+    interface EventHandler {
+        void onEvent(long connection, String event, byte[] data, int offset, int length);
+    }
+
+    // Numbers every connection attempt across all shards, so later connections compare higher
+    private static final AtomicLong CONNECTIONS = new AtomicLong();
+
+    private final String id;
+    private final String tournamentId;
+    private final List<String> matchIds;
+    private final int headerBytes;
+    private final LocalDateTime openedAt = LocalDateTime.now();
+
+    private volatile State state = State.CONNECTING;
+    private volatile LocalDateTime connectedAt;
+    private volatile long lastEventMillis;
+    private volatile String lastError;
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private Disposable subscription;
+
+    LiveScoreShard(String id, String tournamentId, List<String> matchIds, int headerBytes) {
+        this.id = id;
+        this.tournamentId = tournamentId;
+        this.matchIds = List.copyOf(matchIds);
+        this.headerBytes = headerBytes;
+    }
+
+    /**
+     * Subscribe to the stream. {@code connector} is called again for every reconnect,
+     * so each attempt gets fresh request headers and a fresh frame decoder.
+     */
+    void start(Function<List<String>, Flux<DataBuffer>> connector, EventHandler handler,
+               Duration minBackoff, Duration maxBackoff) {
+        subscription = Flux.defer(() -> {
+                    state = connects.getAndIncrement() == 0 ? State.CONNECTING : State.RETRYING;
+                    long connection = CONNECTIONS.incrementAndGet();
+                    SseFrameDecoder frames = new SseFrameDecoder();
+                    SseFrameDecoder.FrameHandler counting = (event, data, offset, length) -> {
+                        events.incrementAndGet();
+                        lastEventMillis = System.currentTimeMillis();
+                        handler.onEvent(connection, event, data, offset, length);
+                    };
+                    return connector.apply(matchIds)
+                            .doOnNext(buffer -> {
+                                try {
+                                    if (state != State.CONNECTED) {
+                                        state = State.CONNECTED;
+                                        connectedAt = LocalDateTime.now();
+                                    }
+                                    bytes.addAndGet(buffer.readableByteCount());
+                                    frames.feed(buffer, counting);
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                            })
+                            // A stream that ends normally is reconnected like a failed one
+                            .concatWith(Flux.error(new IllegalStateException("stream closed by server")));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, minBackoff)
+                        .maxBackoff(maxBackoff)
+                        // Backoff starts over once a reconnected stream delivers data again
+                        .transientErrors(true)
+                        .filter(LiveScoreShard::isRetryable)
+                        .doBeforeRetry(signal -> {
+                            state = State.RETRYING;
+                            lastError = String.valueOf(signal.failure().getMessage());
+                            log.warn("Live score {} failed ({}), reconnecting", id, lastError);
+                        }))
+                .subscribe(null, error -> {
+                    state = State.FAILED;
+                    lastError = String.valueOf(error.getMessage());
+                    log.error("Live score {} gave up", id, error);
+                });
+    }
+
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            int status = response.getStatusCode().value();
+            return status == HttpStatus.REQUEST_TIMEOUT.value() || status == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return true;
+    }
+
+    void close() {
+        state = State.CLOSED;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getTournamentId() {
+        return tournamentId;
+    }
+
+    List<String> getMatchIds() {
+        return matchIds;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    long getEvents() {
+        return events.get();
+    }
+
+    Map<String, Object> getHealth() {
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("id", id);
+        health.put("tournamentId", tournamentId);
+        health.put("matches", matchIds.size());
+        health.put("headerBytes", headerBytes);
+        health.put("state", state);
+        health.put("openedAt", openedAt);
+        health.put("connectedAt", connectedAt);
+        health.put("reconnects", Math.max(0, connects.get() - 1));
+        health.put("lastError", lastError);
+        health.put("events", events.get());
+        health.put("bytes", bytes.get());
+        health.put("lastEventAt", lastEventMillis == 0 ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(lastEventMillis), ZoneId.systemDefault()));
+        long seconds = Math.max(1, Duration.between(openedAt, LocalDateTime.now()).getSeconds());
+        health.put("eventsPerMinute", events.get() * 60 / seconds);
+        return health;
+    }
+}
@@ -1,64 +1,199 @@
 package com.tourneytea.service;
 
 import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.Match;
+import com.tourneytea.repository.TournamentRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.Disposable;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
 import java.util.*;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-public class LiveScoreStreamService {
+public class LiveScoreStreamService implements DisposableBean {
 
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
-    private final MatchUpdateService matchUpdateService;
-
-    private static final String LIVE_SCORE_URL = "https://rte.pbgql.co";
-
-    // Track active SSE connections
-    private final Map<String, Disposable> activeConnections = new ConcurrentHashMap<>();
-    private String currentConnectionKey = null;
+    private final LiveScoreUpdateReader updateReader;
+    private final LiveUpdateDispatcher updateDispatcher;
+
+    static final String LIVE_SCORE_URL = "https://rte.pbgql.co";
+
+    // Open shards by id. A shard's match set is fixed when it opens, because the
+    // upstream takes the match list as a request header.
+    private final Map<String, LiveScoreShard> shards = new LinkedHashMap<>();
+    // Which shard currently carries each subscribed match
+    private final Map<String, String> shardByMatch = new HashMap<>();
+    private int nextShardId = 1;
+
+    private final int maxHeaderBytes;
+    private final int maxShardsPerTournament;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final SyncCoordinator syncCoordinator;
+    private final TournamentRepository tournamentRepository;
+
+    private final AtomicLong shardsOpened = new AtomicLong();
+    private final AtomicLong shardsClosed = new AtomicLong();
+    private final AtomicLong reconnectsAvoided = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong backfills = new AtomicLong();
 
     public LiveScoreStreamService(
             WebClient.Builder webClientBuilder,
             ObjectMapper objectMapper,
-            MatchUpdateService matchUpdateService) {
+            LiveUpdateDispatcher updateDispatcher,
+            SyncCoordinator syncCoordinator,
+            TournamentRepository tournamentRepository,
+            @Value("${tourneytea.live.base-url:" + LIVE_SCORE_URL + "}") String baseUrl,
+            @Value("${tourneytea.live.max-header-bytes:4096}") int maxHeaderBytes,
+            @Value("${tourneytea.live.max-shards-per-tournament:4}") int maxShardsPerTournament,
+            @Value("${tourneytea.live.min-backoff:PT1S}") Duration minBackoff,
+            @Value("${tourneytea.live.max-backoff:PT1M}") Duration maxBackoff,
+            @Value("${tourneytea.live.capture-raw:false}") boolean captureRaw) {
         this.objectMapper = objectMapper;
-        this.matchUpdateService = matchUpdateService;
+        this.updateReader = new LiveScoreUpdateReader(objectMapper.getFactory(), captureRaw);
+        this.updateDispatcher = updateDispatcher;
+        this.syncCoordinator = syncCoordinator;
+        this.tournamentRepository = tournamentRepository;
+        this.maxHeaderBytes = maxHeaderBytes;
+        this.maxShardsPerTournament = Math.max(1, maxShardsPerTournament);
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
         this.webClient = webClientBuilder
-                .baseUrl(LIVE_SCORE_URL)
+                .baseUrl(baseUrl)
                 .codecs(configurer -> configurer
                         .defaultCodecs()
                         .maxInMemorySize(10 * 1024 * 1024))
                 .build();
     }
 
-    public void connectToLiveScores(List<String> matchIds) {
-        if (matchIds == null || matchIds.isEmpty()) {
-            log.warn("No match IDs provided for live score connection");
-            return;
+    /**
+     * Bring the open shards in line with the given live matches. Only the difference
+     * is applied: shards whose matches are still live stay up, matches that joined are
+     * split into new shards by tournament and header size, and a shard is closed once
+     * none of its matches is live any more. When a tournament would end up with too
+     * many shards, its shards are closed and its matches repartitioned. An empty
+     * list means no match is live any more, so every shard is closed.
+     */
+    public synchronized void connectToLiveScores(List<Match> liveMatches) {
+        Map<String, Match> wanted = new LinkedHashMap<>();
+        if (liveMatches != null) {
+            liveMatches.forEach(match -> wanted.put(match.getMatchUuid(), match));
         }
 
-        // Create a key for this set of matches
-        String connectionKey = String.join(",", matchIds);
+        List<Match> added = wanted.values().stream()
+                .filter(match -> !shardByMatch.containsKey(match.getMatchUuid()))
+                .collect(Collectors.toList());
+        Set<String> removed = new HashSet<>(shardByMatch.keySet());
+        removed.removeAll(wanted.keySet());
 
-        // If we're already connected to these same matches, don't reconnect
-        if (connectionKey.equals(currentConnectionKey) &&
-                activeConnections.containsKey(connectionKey)) {
+        if (added.isEmpty() && removed.isEmpty()) {
             log.debug("Already connected to these matches, skipping reconnection");
             return;
         }
 
-        // Disconnect previous connections
-        disconnectAll();
+        Set<String> openBefore = new HashSet<>(shards.keySet());
+
+        // Matches that left the live set no longer need a shard
+        removed.forEach(shardByMatch::remove);
+        List<String> idle = shards.values().stream()
+                .filter(shard -> shard.getMatchIds().stream().noneMatch(shardByMatch::containsKey))
+                .map(LiveScoreShard::getId)
+                .collect(Collectors.toList());
+        idle.forEach(this::closeShard);
+
+        Map<String, List<Match>> addedByTournament = added.stream()
+                .collect(Collectors.groupingBy(LiveScoreStreamService::tournamentKey,
+                        LinkedHashMap::new, Collectors.toList()));
+
+        addedByTournament.forEach((tournamentId, joined) -> {
+            List<String> tournamentShards = shards.values().stream()
+                    .filter(shard -> shard.getTournamentId().equals(tournamentId))
+                    .map(LiveScoreShard::getId)
+                    .collect(Collectors.toList());
+
+            List<String> matchIds;
+            if (tournamentShards.size() >= maxShardsPerTournament) {
+                log.info("Tournament {} has {} shards, repartitioning its matches", tournamentId, tournamentShards.size());
+                compactions.incrementAndGet();
+                tournamentShards.forEach(this::closeShard);
+                matchIds = wanted.values().stream()
+                        .filter(match -> tournamentKey(match).equals(tournamentId))
+                        .map(Match::getMatchUuid)
+                        .collect(Collectors.toList());
+            } else {
+                matchIds = joined.stream().map(Match::getMatchUuid).collect(Collectors.toList());
+            }
+            partition(matchIds, maxHeaderBytes).forEach(part -> openShard(tournamentId, part));
+        });
+
+        // Each shard left running would have been torn down by a full reconnect
+        reconnectsAvoided.addAndGet(shards.keySet().stream().filter(openBefore::contains).count());
+
+        log.info("Live matches: {} joined, {} left; {} shards open", added.size(), removed.size(), shards.size());
+        backfill(added);
+    }
+
+    /**
+     * Split match IDs into groups whose Base64 {@code X-Request-Matches} header stays
+     * within {@code maxHeaderBytes}. A single ID that is already too long gets a group
+     * of its own.
+     */
+    static List<List<String>> partition(List<String> matchIds, int maxHeaderBytes) {
+        List<List<String>> parts = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int rawBytes = 0;
+        for (String matchId : matchIds) {
+            int idBytes = matchId.getBytes(StandardCharsets.UTF_8).length;
+            int next = current.isEmpty() ? idBytes : rawBytes + 1 + idBytes;
+            if (!current.isEmpty() && base64Length(next) > maxHeaderBytes) {
+                parts.add(current);
+                current = new ArrayList<>();
+                next = idBytes;
+            }
+            current.add(matchId);
+            rawBytes = next;
+        }
+        if (!current.isEmpty()) {
+            parts.add(current);
+        }
+        return parts;
+    }
+
+    private static int base64Length(int rawBytes) {
+        return 4 * ((rawBytes + 2) / 3);
+    }
+
+    private static String tournamentKey(Match match) {
+        return match.getTournamentId() != null ? match.getTournamentId() : "unknown";
+    }
+
+    private void openShard(String tournamentId, List<String> matchIds) {
+        String shardId = "shard-" + nextShardId++;
+        String matchesHeader = encodeMatchIds(matchIds);
+        log.info("Opening {} for tournament {} with {} matches ({} header bytes)",
+                shardId, tournamentId, matchIds.size(), matchesHeader.length());
+
+        LiveScoreShard shard = new LiveScoreShard(shardId, tournamentId, matchIds, matchesHeader.length());
+        shard.start(this::connect, this::processEvent, minBackoff, maxBackoff);
 
-        log.info("Connecting to live scores for {} matches: {}", matchIds.size(), matchIds);
+        shards.put(shardId, shard);
+        matchIds.forEach(matchId -> shardByMatch.put(matchId, shardId));
+        shardsOpened.incrementAndGet();
+    }
 
+    private Flux<DataBuffer> connect(List<String> matchIds) {
         String fingerprint = generateFingerprint();
         String token = generateToken(fingerprint);
         String matchesHeader = encodeMatchIds(matchIds);
@@ -66,189 +201,92 @@ public class LiveScoreStreamService {
         log.debug("Generated token: {}", token);
         log.debug("Matches header: {}", matchesHeader);
 
-        try {
-            Disposable subscription = webClient.get()
-                    .uri("/live-scoring")
-                    .header("Accept", "text/event-stream")
-                    .header("PB-RTE-TOKEN", token)
-                    .header("X-Request-Matches", matchesHeader)
-                    .header("Origin", "https://pickleballtournaments.com")
-                    .retrieve()
-                    .bodyToFlux(String.class)
-                    .doOnSubscribe(s -> log.info("SSE stream subscribed"))
-                    .doOnNext(this::processSSEMessage)
-                    .doOnError(error -> {
-                        log.error("Error in live score stream", error);
-                        activeConnections.remove(connectionKey);
-                        currentConnectionKey = null;
-                    })
-                    .doOnComplete(() -> {
-                        log.info("Live score stream completed");
-                        activeConnections.remove(connectionKey);
-                        currentConnectionKey = null;
-                    })
-                    .subscribe();
-
-            activeConnections.put(connectionKey, subscription);
-            currentConnectionKey = connectionKey;
-
-            log.info("Successfully subscribed to live score stream");
-
-        } catch (Exception e) {
-            log.error("Failed to connect to live scores", e);
-        }
+        return webClient.get()
+                .uri("/live-scoring")
+                .header("Accept", "text/event-stream")
+                .header("PB-RTE-TOKEN", token)
+                .header("X-Request-Matches", matchesHeader)
+                .header("Origin", "https://pickleballtournaments.com")
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
     }
 
-    private void disconnectAll() {
-        if (!activeConnections.isEmpty()) {
-            log.info("Disconnecting {} existing SSE connections", activeConnections.size());
-            activeConnections.values().forEach(Disposable::dispose);
-            activeConnections.clear();
-            currentConnectionKey = null;
+    private void closeShard(String shardId) {
+        LiveScoreShard shard = shards.remove(shardId);
+        if (shard != null) {
+            log.info("Closing {}", shardId);
+            shard.close();
+            shard.getMatchIds().forEach(matchId -> shardByMatch.remove(matchId, shardId));
+            shardsClosed.incrementAndGet();
         }
     }
 
-    private void processSSEMessage(String message) {
-        try {
-            // Log raw message for debugging
-            log.debug("Raw SSE message: {}", message);
-
-            // Skip keepalive and init messages
-            if (message.startsWith(":")) {
-                log.debug("Server message: {}", message);
-                return;
-            }
-
-            String eventType = "message";
-            String data = null;
-
-            // Check if message has SSE formatting (event:, data:)
-            if (message.contains("event:") || message.contains("data:")) {
-                // Parse SSE format - messages can be multi-line
-                String[] lines = message.split("\n");
-
-                for (String line : lines) {
-                    if (line.startsWith("event:")) {
-                        eventType = line.substring(6).trim();
-                    } else if (line.startsWith("data:")) {
-                        data = line.substring(5).trim();
-                    }
-                }
-            } else {
-                // Raw JSON without SSE formatting
-                data = message.trim();
-            }
-
-            if (data != null && !data.isEmpty()) {
-                try {
-                    Map<String, Object> eventData = objectMapper.readValue(data, Map.class);
-                    LiveScoreUpdate update = parseScoreUpdate(eventData);
-                    update.setEventType(eventType);
+    /**
+     * Updates sent before a match's shard opened were missed, so pull the current
+     * state of newly subscribed matches from the ticker.
+     */
+    private void backfill(List<Match> added) {
+        added.stream()
+                .map(Match::getTournamentId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(tournamentId -> tournamentRepository.findById(tournamentId).ifPresent(tournament -> {
+                    backfills.incrementAndGet();
+                    syncCoordinator.syncMatches(tournament.getSlug(), tournament.getId())
+                            .whenComplete((report, error) -> {
+                                if (error != null) {
+                                    log.warn("Ticker backfill for {} failed", tournament.getSlug(), error);
+                                }
+                            });
+                }));
+    }
 
-                    log.info("Received score update for match: {}", update.getMatchUuid());
-                    matchUpdateService.processUpdate(update);
+    @Override
+    public synchronized void destroy() {
+        new ArrayList<>(shards.keySet()).forEach(this::closeShard);
+    }
 
-                } catch (Exception e) {
-                    log.error("Error parsing JSON data", e);
-                    log.debug("Failed to parse: {}", data);
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error processing SSE message: {}", message, e);
-        }
+    public synchronized List<Map<String, Object>> getShardHealth() {
+        return shards.values().stream().map(LiveScoreShard::getHealth).collect(Collectors.toList());
     }
 
-    private LiveScoreUpdate parseScoreUpdate(Map<String, Object> data) {
-        LiveScoreUpdate update = new LiveScoreUpdate();
-
-        // Match UUID
-        update.setMatchUuid((String) data.get("matchUuid"));
-
-        // Server info
-        update.setServer(getInteger(data, "server"));
-        update.setServerFromTeam(getInteger(data, "serverFromTeam"));
-        update.setCurrentServingNumber(getInteger(data, "currentServingNumber"));
-
-        // Match status
-        update.setMatchStatus(getInteger(data, "matchStatus"));
-        update.setMatchCompletedType(getInteger(data, "matchCompletedType"));
-        update.setWinner(getInteger(data, "winner"));
-        update.setCurrentGame(getInteger(data, "currentGame"));
-
-        // Game scores - Team One
-        update.setTeamOneGameOneScore(getInteger(data, "teamOneGameOneScore"));
-        update.setTeamOneGameTwoScore(getInteger(data, "teamOneGameTwoScore"));
-        update.setTeamOneGameThreeScore(getInteger(data, "teamOneGameThreeScore"));
-        update.setTeamOneGameFourScore(getInteger(data, "teamOneGameFourScore"));
-        update.setTeamOneGameFiveScore(getInteger(data, "teamOneGameFiveScore"));
-
-        // Game scores - Team Two
-        update.setTeamTwoGameOneScore(getInteger(data, "teamTwoGameOneScore"));
-        update.setTeamTwoGameTwoScore(getInteger(data, "teamTwoGameTwoScore"));
-        update.setTeamTwoGameThreeScore(getInteger(data, "teamTwoGameThreeScore"));
-        update.setTeamTwoGameFourScore(getInteger(data, "teamTwoGameFourScore"));
-        update.setTeamTwoGameFiveScore(getInteger(data, "teamTwoGameFiveScore"));
-
-        // Game status
-        update.setGameOneStatus(getString(data, "gameOneStatus"));
-        update.setGameTwoStatus(getString(data, "gameTwoStatus"));
-        update.setGameThreeStatus(getString(data, "gameThreeStatus"));
-        update.setGameFourStatus(getString(data, "gameFourStatus"));
-        update.setGameFiveStatus(getString(data, "gameFiveStatus"));
-
-        // Court info
-        update.setCourtUuid(getString(data, "courtUuid"));
-        update.setCourtTitle(getString(data, "courtTitle"));
-
-        // Player names
-        update.setTeamOnePlayerOneFirstName(getString(data, "teamOnePlayerOneFirstName"));
-        update.setTeamOnePlayerOneLastName(getString(data, "teamOnePlayerOneLastName"));
-        update.setTeamOnePlayerTwoFirstName(getString(data, "teamOnePlayerTwoFirstName"));
-        update.setTeamOnePlayerTwoLastName(getString(data, "teamOnePlayerTwoLastName"));
-
-        update.setTeamTwoPlayerOneFirstName(getString(data, "teamTwoPlayerOneFirstName"));
-        update.setTeamTwoPlayerOneLastName(getString(data, "teamTwoPlayerOneLastName"));
-        update.setTeamTwoPlayerTwoFirstName(getString(data, "teamTwoPlayerTwoFirstName"));
-        update.setTeamTwoPlayerTwoLastName(getString(data, "teamTwoPlayerTwoLastName"));
-
-        // Timing
-        update.setLocalDateMatchStart(getString(data, "localDateMatchStart"));
-        update.setLocalDateMatchCompleted(getString(data, "localDateMatchCompleted"));
-        update.setLocalDateMatchPlannedStart(getString(data, "localDateMatchPlannedStart"));
-        update.setLocalDateMatchAssignedToCourt(getString(data, "localDateMatchAssignedToCourt"));
-
-        // Metadata
-        update.setTimestamp(java.time.LocalDateTime.now());
-        update.setRawData(data);
-
-        return update;
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openShards", shards.size());
+        stats.put("connectedShards", shards.values().stream()
+                .filter(shard -> shard.getState() == LiveScoreShard.State.CONNECTED).count());
+        // Stopped on a non-retryable error; they stay listed until their matches leave the live set
+        stats.put("failedShards", shards.values().stream()
+                .filter(shard -> shard.getState() == LiveScoreShard.State.FAILED).count());
+        stats.put("subscribedMatches", shardByMatch.size());
+        stats.put("events", shards.values().stream().mapToLong(LiveScoreShard::getEvents).sum());
+        stats.put("shardsOpened", shardsOpened.get());
+        stats.put("shardsClosed", shardsClosed.get());
+        stats.put("reconnectsAvoided", reconnectsAvoided.get());
+        stats.put("compactions", compactions.get());
+        stats.put("backfills", backfills.get());
+        return stats;
     }
 
-    private Integer getInteger(Map<String, Object> data, String key) {
-        Object value = data.get(key);
-        if (value == null) {
-            return null;
-        }
-        if (value instanceof Integer) {
-            return (Integer) value;
-        }
-        if (value instanceof Number) {
-            return ((Number) value).intValue();
-        }
+    private void processEvent(long connection, String eventType, byte[] data, int offset, int length) {
         try {
-            return Integer.parseInt(value.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
+            LiveScoreUpdate update = updateReader.read(data, offset, length);
+            if (update == null) {
+                return;
+            }
+            update.setEventType(eventType);
+            update.setConnection(connection);
+
+            log.debug("Received score update for match: {}", update.getMatchUuid());
+            // Persisting and broadcasting happen on the dispatcher's workers, not this I/O thread
+            updateDispatcher.dispatch(update);
 
-    private String getString(Map<String, Object> data, String key) {
-        Object value = data.get(key);
-        if (value == null) {
-            return null;
+        } catch (IOException e) {
+            log.error("Error parsing JSON data", e);
+            log.debug("Failed to parse: {}", new String(data, offset, length, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("Error processing SSE event", e);
         }
-        String str = value.toString();
-        return str.isEmpty() ? null : str;
     }
 
     private String generateFingerprint() {
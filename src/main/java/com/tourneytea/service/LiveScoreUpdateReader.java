@@ -0,0 +1,120 @@
+package com.tourneytea.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.tourneytea.model.GameStatus;
+import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.ScoreSlot;
+import com.tourneytea.model.ScoreState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Binds one live score event's JSON straight into a {@link LiveScoreUpdate} with a
+ * streaming parser, without building an intermediate Map. Scores, statuses and
+ * server info go into the update's packed {@link ScoreState}. Unknown fields are skipped.
+ * Numbers sent as strings are accepted, and empty strings are read as null.
+ */
+class LiveScoreUpdateReader {
+
+    private final JsonFactory jsonFactory;
+    private final boolean captureRaw;
+
+    LiveScoreUpdateReader(JsonFactory jsonFactory, boolean captureRaw) {
+        this.jsonFactory = jsonFactory;
+        this.captureRaw = captureRaw;
+    }
+
+    /**
+     * @return the update, or null if the payload is not a JSON object
+     */
+    LiveScoreUpdate read(byte[] data, int offset, int length) throws IOException {
+        try (JsonParser p = jsonFactory.createParser(data, offset, length)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            LiveScoreUpdate update = new LiveScoreUpdate();
+            ScoreState score = update.getScore();
+            String field;
+            while ((field = p.nextFieldName()) != null) {
+                p.nextToken();
+                ScoreSlot slot = ScoreSlot.forJsonName(field);
+                if (slot != null) {
+                    readSlot(p, score, slot);
+                    continue;
+                }
+                switch (field) {
+                    case "matchUuid" -> update.setMatchUuid(readString(p));
+
+                    case "courtUuid" -> update.setCourtUuid(readString(p));
+                    case "courtTitle" -> update.setCourtTitle(readString(p));
+
+                    case "teamOnePlayerOneFirstName" -> update.setTeamOnePlayerOneFirstName(readString(p));
+                    case "teamOnePlayerOneLastName" -> update.setTeamOnePlayerOneLastName(readString(p));
+                    case "teamOnePlayerTwoFirstName" -> update.setTeamOnePlayerTwoFirstName(readString(p));
+                    case "teamOnePlayerTwoLastName" -> update.setTeamOnePlayerTwoLastName(readString(p));
+                    case "teamTwoPlayerOneFirstName" -> update.setTeamTwoPlayerOneFirstName(readString(p));
+                    case "teamTwoPlayerOneLastName" -> update.setTeamTwoPlayerOneLastName(readString(p));
+                    case "teamTwoPlayerTwoFirstName" -> update.setTeamTwoPlayerTwoFirstName(readString(p));
+                    case "teamTwoPlayerTwoLastName" -> update.setTeamTwoPlayerTwoLastName(readString(p));
+
+                    case "localDateMatchStart" -> update.setLocalDateMatchStart(readString(p));
+                    case "localDateMatchCompleted" -> update.setLocalDateMatchCompleted(readString(p));
+                    case "localDateMatchPlannedStart" -> update.setLocalDateMatchPlannedStart(readString(p));
+                    case "localDateMatchAssignedToCourt" -> update.setLocalDateMatchAssignedToCourt(readString(p));
+
+                    default -> p.skipChildren();
+                }
+            }
+            update.setTimestamp(LocalDateTime.now());
+            if (captureRaw) {
+                update.setRawData(new RawValue(new String(data, offset, length, StandardCharsets.UTF_8)));
+            }
+            return update;
+        }
+    }
+
+    /**
+     * Read a score slot straight into the packed state. Values that are missing
+     * or not numeric leave the slot unset; game statuses are kept even when they
+     * are not a listed {@link GameStatus}.
+     */
+    private static void readSlot(JsonParser p, ScoreState score, ScoreSlot slot) throws IOException {
+        if (slot.isStatus()) {
+            int code = GameStatus.code(readString(p));
+            if (code >= 0) {
+                score.set(slot, code);
+            }
+            return;
+        }
+        switch (p.currentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                score.set(slot, p.getValueAsInt());
+                break;
+            case VALUE_STRING:
+                try {
+                    score.set(slot, Integer.parseInt(p.getText()));
+                } catch (NumberFormatException e) {
+                    // Left unset
+                }
+                break;
+            default:
+                p.skipChildren();
+        }
+    }
+
+    private static String readString(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL || token.isStructStart()) {
+            p.skipChildren();
+            return null;
+        }
+        String text = p.getText();
+        return text.isEmpty() ? null : text;
+    }
+}
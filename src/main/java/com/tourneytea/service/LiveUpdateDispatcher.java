@@ -0,0 +1,304 @@
+package com.tourneytea.service;
+
+import com.tourneytea.model.LiveScoreUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands live score updates from the SSE I/O threads to a fixed set of worker
+ * threads, so the JPA reads/writes and STOMP broadcasts in
+ * {@link MatchUpdateService} never hold up reading the socket.
+ *
+ * Updates are striped by matchUuid: all updates for one match go to the same
+ * worker and are processed in arrival order, while different matches run in
+ * parallel.
+ *
+ * Each worker keeps at most one pending update per match. An update that
+ * arrives while an earlier one for the same match is still waiting is merged
+ * into it, so during bursts a busy worker only processes the newest state of
+ * each match. A pending update waits at most {@code conflation-max-latency}
+ * for more updates to merge before it becomes due; matches are processed in
+ * order of their first pending update, so a busy match cannot hold one back.
+ *
+ * Before an update is queued it is checked against the last one accepted for
+ * its match. An update with the same content fingerprint (a resent event, or
+ * the same state again after a reconnect) is dropped as a duplicate. An update
+ * from an older connection than one already seen for the match is dropped as
+ * stale; this happens while a match moves to a new shard and the old
+ * connection is still delivering. Both are counted and never reach the
+ * workers.
+ *
+ * Dispatch never blocks; when a worker already has its limit of matches
+ * pending, the update is dropped and counted as an overflow. The next update
+ * or ticker poll for that match brings it up to date again.
+ */
+@Slf4j
+@Component
+public class LiveUpdateDispatcher implements DisposableBean {
+
+    // Matches each worker remembers the last update of; far above the live matches of a busy day
+    private static final int SEEN_PER_WORKER = 10_000;
+
+    private final MatchUpdateService matchUpdateService;
+    private final Stripe[] stripes;
+    private volatile boolean running = true;
+
+    private final long maxLatencyNanos;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    public LiveUpdateDispatcher(
+            MatchUpdateService matchUpdateService,
+            @Value("${tourneytea.live.workers:4}") int workers,
+            @Value("${tourneytea.live.worker-queue-capacity:1000}") int queueCapacity,
+            @Value("${tourneytea.live.conflation-max-latency:PT0.05S}") Duration maxLatency) {
+        this.matchUpdateService = matchUpdateService;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.stripes = new Stripe[Math.max(1, workers)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i, Math.max(1, queueCapacity));
+            stripes[i].thread.start();
+        }
+    }
+
+    /**
+     * Queue an update for its match's worker, merging it into that match's pending
+     * update if there is one. Called on the SSE I/O thread, so it never blocks.
+     *
+     * @return false if the worker had no room and the update was dropped;
+     *         suppressed duplicates and stale updates count as handled
+     */
+    public boolean dispatch(LiveScoreUpdate update) {
+        if (!running) {
+            return false;
+        }
+        Stripe stripe = stripes[Math.floorMod(update.getMatchUuid().hashCode(), stripes.length)];
+        long fingerprint = MatchFingerprints.of(update);
+        Offer result = stripe.offer(update, fingerprint);
+        if (result == Offer.DUPLICATE) {
+            duplicates.incrementAndGet();
+            return true;
+        }
+        if (result == Offer.STALE) {
+            stale.incrementAndGet();
+            log.debug("Dropped update for {} from superseded connection {}", update.getMatchUuid(), update.getConnection());
+            return true;
+        }
+        if (result == Offer.FULL) {
+            long dropped = overflowed.incrementAndGet();
+            // Log the first overflow and then every 1,000th, not every dropped update
+            if (dropped == 1 || dropped % 1_000 == 0) {
+                log.warn("Live update worker {} is full, dropped update for {} ({} dropped so far)",
+                        stripe.index, update.getMatchUuid(), dropped);
+            }
+            return false;
+        }
+        dispatched.incrementAndGet();
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", stripes.length);
+        stats.put("dispatched", dispatched.get());
+        stats.put("conflated", conflated.get());
+        stats.put("overflowed", overflowed.get());
+        stats.put("suppressedDuplicates", duplicates.get());
+        stats.put("suppressedStale", stale.get());
+
+        long processed = 0;
+        long failed = 0;
+        long waitNanos = 0;
+        long maxWaitNanos = 0;
+        long processNanos = 0;
+        List<Map<String, Object>> workers = new ArrayList<>(stripes.length);
+        for (Stripe stripe : stripes) {
+            processed += stripe.processed.get();
+            failed += stripe.failed.get();
+            waitNanos += stripe.waitNanos.get();
+            maxWaitNanos = Math.max(maxWaitNanos, stripe.maxWaitNanos.get());
+            processNanos += stripe.processNanos.get();
+
+            Map<String, Object> worker = new LinkedHashMap<>();
+            worker.put("queueDepth", stripe.depth());
+            worker.put("maxQueueDepth", stripe.maxDepth.get());
+            worker.put("processed", stripe.processed.get());
+            workers.add(worker);
+        }
+        stats.put("processed", processed);
+        // Updates received per update processed; 1.0 means nothing was merged
+        stats.put("conflationRatio", processed == 0 ? 1.0 : (double) dispatched.get() / processed);
+        stats.put("failed", failed);
+        stats.put("avgQueueWaitMicros", processed == 0 ? 0 : waitNanos / processed / 1_000);
+        stats.put("maxQueueWaitMicros", maxWaitNanos / 1_000);
+        stats.put("avgProcessMicros", processed == 0 ? 0 : processNanos / processed / 1_000);
+        stats.put("perWorker", workers);
+        return stats;
+    }
+
+    /**
+     * Stop taking updates and give the workers a few seconds to finish what is pending.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Stripe stripe : stripes) {
+            stripe.thread.join(TimeUnit.SECONDS.toMillis(5));
+            stripe.thread.interrupt();
+        }
+    }
+
+    private enum Offer { QUEUED, DUPLICATE, STALE, FULL }
+
+    private record Pending(LiveScoreUpdate update, long enqueuedNanos) {
+    }
+
+    // The last update accepted for a match
+    private record Seen(long connection, long fingerprint) {
+    }
+
+    private final class Stripe implements Runnable {
+        private final int index;
+        private final int capacity;
+        private final Thread thread;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        // Pending update per match, in order of each match's first pending update
+        private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+        // Last accepted update per match, least recently updated matches dropped first
+        private final LinkedHashMap<String, Seen> seen = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Seen> eldest) {
+                return size() > SEEN_PER_WORKER;
+            }
+        };
+
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong processNanos = new AtomicLong();
+        private final AtomicLong maxDepth = new AtomicLong();
+
+        Stripe(int index, int capacity) {
+            this.index = index;
+            this.capacity = capacity;
+            this.thread = new Thread(this, "live-update-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        Offer offer(LiveScoreUpdate update, long fingerprint) {
+            lock.lock();
+            try {
+                Seen last = seen.get(update.getMatchUuid());
+                if (last != null) {
+                    if (update.getConnection() < last.connection()) {
+                        return Offer.STALE;
+                    }
+                    if (fingerprint == last.fingerprint()) {
+                        return Offer.DUPLICATE;
+                    }
+                }
+
+                Pending existing = pending.get(update.getMatchUuid());
+                if (existing != null) {
+                    existing.update().mergeFrom(update);
+                    conflated.incrementAndGet();
+                } else if (pending.size() >= capacity) {
+                    // Not remembered, so the same update resent later is not taken for a duplicate
+                    return Offer.FULL;
+                } else {
+                    pending.put(update.getMatchUuid(), new Pending(update, System.nanoTime()));
+                    maxDepth.accumulateAndGet(pending.size(), Math::max);
+                    changed.signal();
+                }
+                seen.put(update.getMatchUuid(), new Seen(update.getConnection(), fingerprint));
+                return Offer.QUEUED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int depth() {
+            lock.lock();
+            try {
+                return pending.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Wait for the oldest pending update to become due and take it, or return
+         * null once the dispatcher is stopped and nothing is left.
+         */
+        private Pending take() throws InterruptedException {
+            lock.lock();
+            try {
+                while (true) {
+                    if (pending.isEmpty()) {
+                        if (!running) {
+                            return null;
+                        }
+                        changed.await(100, TimeUnit.MILLISECONDS);
+                        continue;
+                    }
+                    Map.Entry<String, Pending> oldest = pending.entrySet().iterator().next();
+                    long wait = oldest.getValue().enqueuedNanos() + maxLatencyNanos - System.nanoTime();
+                    if (wait <= 0 || !running) {
+                        pending.remove(oldest.getKey());
+                        return oldest.getValue();
+                    }
+                    changed.awaitNanos(wait);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Pending next;
+                try {
+                    next = take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (next == null) {
+                    return;
+                }
+
+                long start = System.nanoTime();
+                long waited = start - next.enqueuedNanos();
+                waitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+                try {
+                    matchUpdateService.processUpdate(next.update());
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.error("Error processing live update for {}", next.update().getMatchUuid(), e);
+                }
+                processNanos.addAndGet(System.nanoTime() - start);
+                processed.incrementAndGet();
+            }
+        }
+    }
+}
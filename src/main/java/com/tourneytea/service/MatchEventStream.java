@@ -0,0 +1,344 @@
+package com.tourneytea.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.model.Match;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Match deltas for the server-sent event endpoints, one hot source shared by
+ * every stream. Nothing here holds a thread per client: each stream is a
+ * bounded sink that published events are pushed into.
+ *
+ * Every published delta gets the next event id and is kept for
+ * {@code replay-window}, so a client reconnecting with {@code Last-Event-ID}
+ * gets exactly what it missed. Without an id, or with one that is no longer
+ * in the window, a stream starts with snapshots of its held matches instead.
+ *
+ * A stream whose buffer fills up is ended rather than blocking the publisher or
+ * silently losing events; the client reconnects and resumes from its last id.
+ */
+@Slf4j
+@Component
+public class MatchEventStream {
+
+    public static final String MATCH_EVENT = "match";
+
+    private final ObjectMapper objectMapper;
+    private final LiveMatchStore liveMatchStore;
+    private final Duration replayWindow;
+    private final int replayMaxEvents;
+    private final int subscriberBuffer;
+    private final Duration heartbeat;
+
+    // Publishing, replaying and registering all happen under this lock so a
+    // resuming stream never sees an event twice or misses one in between.
+    // Snapshots are read without it.
+    private final Object lock = new Object();
+    private final ArrayDeque<Event> replay = new ArrayDeque<>();
+    private final Map<String, Set<Subscriber>> byMatch = new HashMap<>();
+    private final Map<String, Set<Subscriber>> byTournament = new HashMap<>();
+    private long lastId = System.currentTimeMillis();
+    private int subscribers;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong resumed = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong snapshotsSent = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public MatchEventStream(
+            ObjectMapper objectMapper,
+            LiveMatchStore liveMatchStore,
+            @Value("${tourneytea.stream.replay-window:PT1M}") Duration replayWindow,
+            @Value("${tourneytea.stream.replay-max-events:10000}") int replayMaxEvents,
+            @Value("${tourneytea.stream.subscriber-buffer:256}") int subscriberBuffer,
+            @Value("${tourneytea.stream.heartbeat:PT15S}") Duration heartbeat) {
+        this.objectMapper = objectMapper;
+        this.liveMatchStore = liveMatchStore;
+        this.replayWindow = replayWindow;
+        this.replayMaxEvents = Math.max(1, replayMaxEvents);
+        this.subscriberBuffer = Math.max(1, subscriberBuffer);
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Send a match delta to the streams following the match or its tournament.
+     */
+    public void publish(Match match, MatchDelta delta) {
+        String data = serialize(delta);
+        if (data == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Event event = new Event(++lastId, now, match.getMatchUuid(), match.getTournamentId(), data);
+            replay.addLast(event);
+            trim(now);
+            published.incrementAndGet();
+            deliver(event, byMatch.get(event.matchUuid()));
+            deliver(event, byTournament.get(event.tournamentId()));
+        }
+    }
+
+    /**
+     * A stream of the given matches' deltas.
+     *
+     * @param lastEventId the client's {@code Last-Event-ID}, or null for a fresh stream
+     */
+    public Flux<ServerSentEvent<String>> matches(Collection<String> matchUuids, String lastEventId) {
+        Set<String> ids = new HashSet<>(matchUuids);
+        return open(new Subscriber(ids, null), lastEventId,
+                () -> liveMatchStore.snapshots(match -> ids.contains(match.getMatchUuid())));
+    }
+
+    /**
+     * A stream of the deltas of every match in a tournament.
+     *
+     * @param lastEventId the client's {@code Last-Event-ID}, or null for a fresh stream
+     */
+    public Flux<ServerSentEvent<String>> tournament(String tournamentId, String lastEventId) {
+        return open(new Subscriber(Set.of(), tournamentId), lastEventId,
+                () -> liveMatchStore.snapshots(match -> tournamentId.equals(match.getTournamentId())));
+    }
+
+    private Flux<ServerSentEvent<String>> open(Subscriber subscriber, String lastEventId,
+                                               SnapshotSource snapshots) {
+        Long resumeAfter = parseId(lastEventId);
+        int replayedCount = resumeAfter != null ? start(subscriber, resumeAfter, List.of()) : -1;
+        if (replayedCount >= 0) {
+            resumed.incrementAndGet();
+            replayed.addAndGet(replayedCount);
+        }
+        // Snapshots are built and serialized outside the lock. They carry the id from
+        // before they were read, and anything published meanwhile is replayed after
+        // them; clients skip deltas at or below a snapshot's version.
+        while (replayedCount < 0) {
+            long before = lastId();
+            List<Event> backlog = new ArrayList<>();
+            for (MatchDelta snapshot : snapshots.get()) {
+                String data = serialize(snapshot);
+                if (data != null) {
+                    backlog.add(new Event(before, 0, snapshot.getMatchUuid(), null, data));
+                }
+            }
+            replayedCount = start(subscriber, before, backlog);
+            if (replayedCount >= 0) {
+                snapshotsSent.addAndGet(backlog.size());
+            }
+        }
+
+        Flux<ServerSentEvent<String>> events = subscriber.sink.asFlux()
+                .map(event -> ServerSentEvent.<String>builder()
+                        .id(Long.toString(event.id()))
+                        .event(MATCH_EVENT)
+                        .data(event.data())
+                        .build());
+        Flux<ServerSentEvent<String>> heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<String>builder().comment("keepalive").build())
+                .takeUntilOther(subscriber.closed.asMono());
+        // Merge prefetches as little as possible so the sink stays the only real buffer
+        return Flux.merge(1, events, heartbeats)
+                .doFinally(signal -> {
+                    synchronized (lock) {
+                        unregister(subscriber);
+                    }
+                });
+    }
+
+    /**
+     * Open the subscriber's sink with the given events followed by the ones it
+     * follows after {@code resumeAfter}, and register it for new events.
+     *
+     * @return the number of events replayed, or -1 if the window no longer reaches back to {@code resumeAfter}
+     */
+    private int start(Subscriber subscriber, long resumeAfter, List<Event> head) {
+        synchronized (lock) {
+            trim(System.currentTimeMillis());
+            if (!canResume(resumeAfter)) {
+                return -1;
+            }
+            List<Event> backlog = new ArrayList<>(head);
+            for (Event event : replay) {
+                if (event.id() > resumeAfter && subscriber.follows(event)) {
+                    backlog.add(event);
+                }
+            }
+            // The backlog gets room of its own, so a big tournament doesn't overflow a stream before it starts
+            subscriber.open(subscriberBuffer + backlog.size());
+            backlog.forEach(subscriber::offer);
+            register(subscriber);
+            return backlog.size() - head.size();
+        }
+    }
+
+    private long lastId() {
+        synchronized (lock) {
+            return lastId;
+        }
+    }
+
+    // Only ids from the current window can be resumed; anything older, or from before a restart, gets snapshots
+    private boolean canResume(long resumeAfter) {
+        if (replay.isEmpty()) {
+            return resumeAfter == lastId;
+        }
+        return resumeAfter >= replay.peekFirst().id() - 1 && resumeAfter <= lastId;
+    }
+
+    private void trim(long now) {
+        long cutoff = now - replayWindow.toMillis();
+        while (!replay.isEmpty() && (replay.size() > replayMaxEvents || replay.peekFirst().publishedAt() < cutoff)) {
+            replay.pollFirst();
+        }
+    }
+
+    private void deliver(Event event, Set<Subscriber> followers) {
+        if (followers == null) {
+            return;
+        }
+        for (Subscriber subscriber : List.copyOf(followers)) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void register(Subscriber subscriber) {
+        if (subscriber.ended) {
+            return;
+        }
+        subscriber.registered = true;
+        for (String matchUuid : subscriber.matchUuids) {
+            byMatch.computeIfAbsent(matchUuid, id -> new HashSet<>()).add(subscriber);
+        }
+        if (subscriber.tournamentId != null) {
+            byTournament.computeIfAbsent(subscriber.tournamentId, id -> new HashSet<>()).add(subscriber);
+        }
+        subscribers++;
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (subscriber.registered) {
+            subscriber.registered = false;
+            for (String matchUuid : subscriber.matchUuids) {
+                remove(byMatch, matchUuid, subscriber);
+            }
+            if (subscriber.tournamentId != null) {
+                remove(byTournament, subscriber.tournamentId, subscriber);
+            }
+            subscribers--;
+        }
+    }
+
+    private static void remove(Map<String, Set<Subscriber>> index, String key, Subscriber subscriber) {
+        Set<Subscriber> followers = index.get(key);
+        if (followers != null && followers.remove(subscriber) && followers.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private String serialize(MatchDelta delta) {
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize delta for match {}", delta.getMatchUuid(), e);
+            return null;
+        }
+    }
+
+    private static Long parseId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("subscribers", subscribers);
+            stats.put("replayEvents", replay.size());
+            stats.put("lastEventId", lastId);
+        }
+        stats.put("subscriberBuffer", subscriberBuffer);
+        stats.put("published", published.get());
+        stats.put("delivered", delivered.get());
+        stats.put("resumed", resumed.get());
+        stats.put("replayed", replayed.get());
+        stats.put("snapshotsSent", snapshotsSent.get());
+        stats.put("overflowed", overflowed.get());
+        return stats;
+    }
+
+    private record Event(long id, long publishedAt, String matchUuid, String tournamentId, String data) {
+    }
+
+    @FunctionalInterface
+    private interface SnapshotSource {
+        List<MatchDelta> get();
+    }
+
+    private final class Subscriber {
+        private final Set<String> matchUuids;
+        private final String tournamentId;
+        private Sinks.Many<Event> sink;
+        private final Sinks.Empty<Void> closed = Sinks.empty();
+        private boolean registered;
+        private boolean ended;
+
+        private Subscriber(Set<String> matchUuids, String tournamentId) {
+            this.matchUuids = matchUuids;
+            this.tournamentId = tournamentId;
+        }
+
+        private void open(int capacity) {
+            sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Event>get(capacity).get());
+        }
+
+        private boolean follows(Event event) {
+            return matchUuids.contains(event.matchUuid())
+                    || (tournamentId != null && tournamentId.equals(event.tournamentId()));
+        }
+
+        // Called under the lock
+        private void offer(Event event) {
+            if (ended) {
+                return;
+            }
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            if (result.isSuccess()) {
+                delivered.incrementAndGet();
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                ended = true;
+                overflowed.incrementAndGet();
+                log.info("Ending an event stream that fell {} events behind", subscriberBuffer);
+                unregister(this);
+                sink.tryEmitComplete();
+                closed.tryEmitEmpty();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.tourneytea.service;
+
+import com.tourneytea.dto.MatchData;
+import com.tourneytea.dto.StreamingService;
+import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.ScoreSlot;
+import com.tourneytea.model.ScoreState;
+import com.tourneytea.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content fingerprints of the last ticker payload saved for each match.
+ * Kept in memory and persisted on Match.contentHash, so unchanged matches can
+ * be skipped without converting or writing them. Live updates are fingerprinted
+ * the same way to recognize resent events.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchFingerprints {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Stored for matches that exist in the database without a fingerprint yet
+    private static final long UNKNOWN = 0L;
+
+    private static final ScoreSlot[] SCORE_SLOTS = ScoreSlot.values();
+
+    private final MatchRepository matchRepository;
+
+    // Tournament id to the fingerprints of its matches, loaded on first use
+    private final Map<String, Map<String, Long>> byTournament = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the stored fingerprint for a match, null if the match has never been saved.
+     */
+    public Long get(String tournamentId, String matchUuid) {
+        return tournamentId != null ? fingerprints(tournamentId).get(matchUuid) : null;
+    }
+
+    public void put(String tournamentId, String matchUuid, long fingerprint) {
+        if (tournamentId != null) {
+            fingerprints(tournamentId).put(matchUuid, fingerprint);
+        }
+    }
+
+    private Map<String, Long> fingerprints(String tournamentId) {
+        Map<String, Long> loaded = byTournament.get(tournamentId);
+        if (loaded != null) {
+            return loaded;
+        }
+        // Queried outside the map so no lock is held during it; concurrent first
+        // pages of a tournament may both query, and the first result is kept
+        Map<String, Long> fresh = load(tournamentId);
+        Map<String, Long> existing = byTournament.putIfAbsent(tournamentId, fresh);
+        return existing != null ? existing : fresh;
+    }
+
+    private Map<String, Long> load(String tournamentId) {
+        Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+        for (MatchRepository.ContentHash row : matchRepository.findContentHashesByTournamentId(tournamentId)) {
+            Long hash = row.getContentHash();
+            fingerprints.put(row.getMatchUuid(), hash != null ? hash : UNKNOWN);
+        }
+        log.debug("Loaded {} match fingerprints for tournament {}", fingerprints.size(), tournamentId);
+        return fingerprints;
+    }
+
+    /**
+     * Drop the fingerprints of tournaments that are no longer active; they are
+     * loaded again if one is synced later.
+     */
+    public void retainTournaments(Collection<String> activeTournamentIds) {
+        byTournament.keySet().retainAll(activeTournamentIds);
+    }
+
+    public int size() {
+        return byTournament.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * 64-bit FNV-1a hash over every field of the ticker payload.
+     */
+    public static long of(MatchData m) {
+        long h = FNV_OFFSET;
+        h = mix(h, m.getMatchUuid());
+
+        h = mix(h, m.getTeamOnePlayerOneUuid());
+        h = mix(h, m.getTeamOnePlayerOneFirstName());
+        h = mix(h, m.getTeamOnePlayerOneLastName());
+        h = mix(h, m.getTeamOnePlayerOnePicture());
+        h = mix(h, m.getTeamOnePlayerTwoUuid());
+        h = mix(h, m.getTeamOnePlayerTwoFirstName());
+        h = mix(h, m.getTeamOnePlayerTwoLastName());
+
+        h = mix(h, m.getTeamTwoPlayerOneUuid());
+        h = mix(h, m.getTeamTwoPlayerOneFirstName());
+        h = mix(h, m.getTeamTwoPlayerOneLastName());
+        h = mix(h, m.getTeamTwoPlayerOnePicture());
+        h = mix(h, m.getTeamTwoPlayerTwoUuid());
+        h = mix(h, m.getTeamTwoPlayerTwoFirstName());
+        h = mix(h, m.getTeamTwoPlayerTwoLastName());
+
+        h = mix(h, m.getTeamOneGameOneScore());
+        h = mix(h, m.getTeamTwoGameOneScore());
+        h = mix(h, m.getTeamOneGameTwoScore());
+        h = mix(h, m.getTeamTwoGameTwoScore());
+        h = mix(h, m.getTeamOneGameThreeScore());
+        h = mix(h, m.getTeamTwoGameThreeScore());
+        h = mix(h, m.getTeamOneGameFourScore());
+        h = mix(h, m.getTeamTwoGameFourScore());
+        h = mix(h, m.getTeamOneGameFiveScore());
+        h = mix(h, m.getTeamTwoGameFiveScore());
+
+        h = mix(h, m.getMatchStatus());
+        h = mix(h, m.getMatchCompletedType());
+        h = mix(h, m.getWinner());
+        h = mix(h, m.getTeamOneWinningPercentage() != null
+                ? Double.doubleToLongBits(m.getTeamOneWinningPercentage()) : null);
+        h = mix(h, m.getRoundText());
+        h = mix(h, m.getRoundNumber());
+        h = mix(h, m.getCourtTitle());
+        h = mix(h, m.getCourtUuid());
+
+        h = mix(h, m.getEventUuid());
+        h = mix(h, m.getEventTitle());
+        h = mix(h, m.getTournamentTitle());
+
+        h = mix(h, m.getGameOneStatus());
+        h = mix(h, m.getGameTwoStatus());
+        h = mix(h, m.getGameThreeStatus());
+        h = mix(h, m.getGameFourStatus());
+        h = mix(h, m.getGameFiveStatus());
+
+        h = mix(h, m.getServer());
+        h = mix(h, m.getServerFromTeam());
+        h = mix(h, m.getCurrentServingNumber());
+
+        h = mix(h, m.getLocalDateMatchStart());
+        h = mix(h, m.getLocalDateMatchPlannedStart());
+        h = mix(h, m.getLocalDateMatchCompleted());
+        h = mix(h, m.getLocalDateMatchAssignedToCourt());
+
+        if (m.getStreamingServices() != null) {
+            for (StreamingService service : m.getStreamingServices()) {
+                h = mix(h, service.getServiceId());
+                h = mix(h, service.getServiceName());
+                h = mix(h, service.getLogoUrl());
+                h = mix(h, service.getLiveUrl());
+                h = mix(h, service.getArchivedUrl());
+                h = mix(h, service.getHighlightsUrl());
+            }
+        }
+
+        // Keep 0 free for the UNKNOWN marker
+        return h == UNKNOWN ? 1L : h;
+    }
+
+    /**
+     * 64-bit FNV-1a hash over the content of a live update: every score slot it
+     * carries plus its court, names and timing. Receive time, event type and raw
+     * data are left out, so a resent event hashes the same as the original.
+     */
+    public static long of(LiveScoreUpdate u) {
+        long h = FNV_OFFSET;
+        ScoreState score = u.getScore();
+        for (ScoreSlot slot : SCORE_SLOTS) {
+            h = score.has(slot) ? mix(h, score.get(slot)) : mixByte(h, 0xff);
+        }
+
+        h = mix(h, u.getCourtUuid());
+        h = mix(h, u.getCourtTitle());
+
+        h = mix(h, u.getTeamOnePlayerOneFirstName());
+        h = mix(h, u.getTeamOnePlayerOneLastName());
+        h = mix(h, u.getTeamOnePlayerTwoFirstName());
+        h = mix(h, u.getTeamOnePlayerTwoLastName());
+        h = mix(h, u.getTeamTwoPlayerOneFirstName());
+        h = mix(h, u.getTeamTwoPlayerOneLastName());
+        h = mix(h, u.getTeamTwoPlayerTwoFirstName());
+        h = mix(h, u.getTeamTwoPlayerTwoLastName());
+
+        h = mix(h, u.getLocalDateMatchStart());
+        h = mix(h, u.getLocalDateMatchCompleted());
+        h = mix(h, u.getLocalDateMatchPlannedStart());
+        h = mix(h, u.getLocalDateMatchAssignedToCourt());
+        return h;
+    }
+
+    private static long mix(long h, String value) {
+        if (value == null) {
+            return mixByte(h, 0xff);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            h = mixByte(h, c & 0xff);
+            h = mixByte(h, c >>> 8);
+        }
+        // Field separator, so ("ab", "c") and ("a", "bc") hash differently
+        return mixByte(h, 0xfe);
+    }
+
+    private static long mix(long h, Number value) {
+        if (value == null) {
+            return mixByte(h, 0xff);
+        }
+        return mix(h, value.longValue());
+    }
+
+    private static long mix(long h, long v) {
+        for (int i = 0; i < 8; i++) {
+            h = mixByte(h, (int) (v >>> (i * 8)) & 0xff);
+        }
+        return mixByte(h, 0xfe);
+    }
+
+    private static long mixByte(long h, int b) {
+        return (h ^ b) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,92 @@
+package com.tourneytea.service;
+
+import com.tourneytea.dto.TournamentSyncReport;
+import com.tourneytea.model.Tournament;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingests ticker matches for several tournaments at once. Each tournament syncs
+ * independently and nobody waits for a batch of them, so a slow one never
+ * delays fresh data for the others. At most {@code tournament-concurrency}
+ * tournaments sync at a time. Upstream request concurrency is capped by the
+ * WebClient in PickleballApiService, and a tournament that is already syncing
+ * (e.g. from an admin request) is joined rather than synced twice.
+ */
+@Slf4j
+@Service
+public class MatchIngestionService {
+
+    private final SyncCoordinator syncCoordinator;
+    private final int tournamentConcurrency;
+
+    // Ids of the tournaments this service is syncing right now
+    private final Set<String> running = new HashSet<>();
+
+    // Most recent sync report per tournament slug
+    private final Map<String, TournamentSyncReport> lastReports = new ConcurrentHashMap<>();
+
+    public MatchIngestionService(
+            SyncCoordinator syncCoordinator,
+            @Value("${tourneytea.sync.tournament-concurrency:4}") int tournamentConcurrency) {
+        this.syncCoordinator = syncCoordinator;
+        this.tournamentConcurrency = Math.max(1, tournamentConcurrency);
+    }
+
+    /**
+     * Start syncing a tournament's matches without waiting for it.
+     *
+     * @return the running sync, or null if this tournament is already syncing or
+     *         {@code tournament-concurrency} others are
+     */
+    public CompletableFuture<TournamentSyncReport> start(Tournament tournament) {
+        String tournamentId = tournament.getId();
+        synchronized (running) {
+            if (running.size() >= tournamentConcurrency || !running.add(tournamentId)) {
+                return null;
+            }
+        }
+
+        return syncCoordinator.syncMatches(tournament.getSlug(), tournamentId)
+                .whenComplete((report, error) -> {
+                    synchronized (running) {
+                        running.remove(tournamentId);
+                    }
+                    if (report != null) {
+                        record(report);
+                    } else {
+                        log.warn("Sync for {} failed", tournament.getSlug(), error);
+                    }
+                });
+    }
+
+    private void record(TournamentSyncReport report) {
+        lastReports.put(report.getTournamentSlug(), report);
+        if (report.isSuccessful()) {
+            log.info("Synced {} ({} pages) in {} ms: {} inserted, {} updated, {} unchanged",
+                    report.getTournamentSlug(), report.getPages(), report.getDurationMillis(),
+                    report.getMatches().getInserted(), report.getMatches().getUpdated(),
+                    report.getMatches().getUnchanged());
+        } else {
+            log.warn("Sync for {} failed after {} ms: {}",
+                    report.getTournamentSlug(), report.getDurationMillis(), report.getError());
+        }
+    }
+
+    public int getRunning() {
+        synchronized (running) {
+            return running.size();
+        }
+    }
+
+    public Map<String, TournamentSyncReport> getLastReports() {
+        return Map.copyOf(lastReports);
+    }
+}
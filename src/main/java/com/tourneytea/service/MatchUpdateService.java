@@ -1,12 +1,15 @@
 package com.tourneytea.service;
 
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.messaging.TopicFanout;
 import com.tourneytea.model.LiveScoreUpdate;
-import com.tourneytea.repository.MatchRepository;
+import com.tourneytea.model.MatchField;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 import com.tourneytea.model.Match;
 import java.time.format.DateTimeFormatter;
@@ -16,123 +19,58 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class MatchUpdateService {
 
-    private final MatchRepository matchRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final TopicFanout topicFanout;
+    private final LiveMatchStore liveMatchStore;
+    private final MatchWriteBehind matchWriteBehind;
+    private final AggregateTopicPublisher aggregateTopicPublisher;
+    private final MatchEventStream matchEventStream;
 
     public void processUpdate(LiveScoreUpdate update) {
         log.info("Processing live update for match: {}", update.getMatchUuid());
 
-        matchRepository.findById(update.getMatchUuid())
-                .ifPresentOrElse(
-                        match -> updateExistingMatch(match, update),
-                        () -> log.warn("Match not found in database: {}", update.getMatchUuid())
-                );
-    }
-
-    private void updateExistingMatch(Match match, LiveScoreUpdate update) {
-        boolean hasChanges = false;
-
-        // Update game scores if present
-        if (update.getTeamOneGameOneScore() != null &&
-                !update.getTeamOneGameOneScore().equals(match.getTeamOneGameOneScore())) {
-            match.setTeamOneGameOneScore(update.getTeamOneGameOneScore());
-            hasChanges = true;
-        }
-        if (update.getTeamTwoGameOneScore() != null &&
-                !update.getTeamTwoGameOneScore().equals(match.getTeamTwoGameOneScore())) {
-            match.setTeamTwoGameOneScore(update.getTeamTwoGameOneScore());
-            hasChanges = true;
-        }
-
-        if (update.getTeamOneGameTwoScore() != null &&
-                !update.getTeamOneGameTwoScore().equals(match.getTeamOneGameTwoScore())) {
-            match.setTeamOneGameTwoScore(update.getTeamOneGameTwoScore());
-            hasChanges = true;
-        }
-        if (update.getTeamTwoGameTwoScore() != null &&
-                !update.getTeamTwoGameTwoScore().equals(match.getTeamTwoGameTwoScore())) {
-            match.setTeamTwoGameTwoScore(update.getTeamTwoGameTwoScore());
-            hasChanges = true;
-        }
-
-        if (update.getTeamOneGameThreeScore() != null &&
-                !update.getTeamOneGameThreeScore().equals(match.getTeamOneGameThreeScore())) {
-            match.setTeamOneGameThreeScore(update.getTeamOneGameThreeScore());
-            hasChanges = true;
-        }
-        if (update.getTeamTwoGameThreeScore() != null &&
-                !update.getTeamTwoGameThreeScore().equals(match.getTeamTwoGameThreeScore())) {
-            match.setTeamTwoGameThreeScore(update.getTeamTwoGameThreeScore());
-            hasChanges = true;
-        }
-
-        if (update.getTeamOneGameFourScore() != null &&
-                !update.getTeamOneGameFourScore().equals(match.getTeamOneGameFourScore())) {
-            match.setTeamOneGameFourScore(update.getTeamOneGameFourScore());
-            hasChanges = true;
-        }
-        if (update.getTeamTwoGameFourScore() != null &&
-                !update.getTeamTwoGameFourScore().equals(match.getTeamTwoGameFourScore())) {
-            match.setTeamTwoGameFourScore(update.getTeamTwoGameFourScore());
-            hasChanges = true;
-        }
-
-        if (update.getTeamOneGameFiveScore() != null &&
-                !update.getTeamOneGameFiveScore().equals(match.getTeamOneGameFiveScore())) {
-            match.setTeamOneGameFiveScore(update.getTeamOneGameFiveScore());
-            hasChanges = true;
-        }
-        if (update.getTeamTwoGameFiveScore() != null &&
-                !update.getTeamTwoGameFiveScore().equals(match.getTeamTwoGameFiveScore())) {
-            match.setTeamTwoGameFiveScore(update.getTeamTwoGameFiveScore());
-            hasChanges = true;
-        }
-
-        // Update match status
-        if (update.getMatchStatus() != null &&
-                !update.getMatchStatus().equals(match.getMatchStatus())) {
-            match.setMatchStatus(update.getMatchStatus());
-            hasChanges = true;
-            log.info("Match status changed to: {}", update.getMatchStatus());
-        }
-
-        // Update winner
-        if (update.getWinner() != null &&
-                !update.getWinner().equals(match.getWinner())) {
-            match.setWinner(update.getWinner());
-            hasChanges = true;
-            log.info("Match winner set to: {}", update.getWinner());
+        if (liveMatchStore.getOrLoad(update.getMatchUuid()).isEmpty()) {
+            log.warn("Match not found in database: {}", update.getMatchUuid());
+            return;
         }
+        liveMatchStore.update(update.getMatchUuid(), match -> applyUpdate(match, update))
+                .ifPresentOrElse(this::broadcast,
+                        () -> log.debug("No changes detected for match {}", update.getMatchUuid()));
+    }
 
-        // Update server info
-        if (update.getServer() != null) {
-            match.setServer(update.getServer());
-            hasChanges = true;
-        }
-        if (update.getServerFromTeam() != null) {
-            match.setServerFromTeam(update.getServerFromTeam());
-            hasChanges = true;
-        }
-        if (update.getCurrentServingNumber() != null) {
-            match.setCurrentServingNumber(update.getCurrentServingNumber());
-            hasChanges = true;
+    /**
+     * Merge rows a ticker sync has just written into the held matches. Held
+     * matches take the fields the live feed does not own. If the ticker reports
+     * a result the live feed never sent, its row is taken as it is and the
+     * change is broadcast like a live update.
+     */
+    public void mergeSynced(Collection<Match> synced) {
+        for (Match row : synced) {
+            liveMatchStore.update(row.getMatchUuid(), match -> {
+                if (LiveMatchStore.isCompleted(row) && !LiveMatchStore.isCompleted(match)) {
+                    long changed = MatchField.changed(match, row);
+                    BeanUtils.copyProperties(row, match);
+                    log.info("Match {} completed according to the ticker", match.getMatchUuid());
+                    return changed;
+                }
+                LiveMatchStore.takeNotLiveOwned(row, match);
+                return 0;
+            }).ifPresent(this::broadcast);
         }
+    }
 
-        // Update game status
-        if (update.getGameOneStatus() != null &&
-                !update.getGameOneStatus().equals(match.getGameOneStatus())) {
-            match.setGameOneStatus(update.getGameOneStatus());
-            hasChanges = true;
-        }
-        if (update.getGameTwoStatus() != null &&
-                !update.getGameTwoStatus().equals(match.getGameTwoStatus())) {
-            match.setGameTwoStatus(update.getGameTwoStatus());
-            hasChanges = true;
+    /**
+     * Apply a live update to a copy of the held match.
+     *
+     * @return the {@link MatchField} bits of the fields that changed
+     */
+    private long applyUpdate(Match match, LiveScoreUpdate update) {
+        // Scores, statuses and server info: only the slots that differ are written
+        long changed = update.getScore().applyTo(match);
+        if ((changed & MatchField.MATCH_STATUS.bit()) != 0) {
+            log.info("Match status changed to: {}", match.getMatchStatus());
         }
-        if (update.getGameThreeStatus() != null &&
-                !update.getGameThreeStatus().equals(match.getGameThreeStatus())) {
-            match.setGameThreeStatus(update.getGameThreeStatus());
-            hasChanges = true;
+        if ((changed & MatchField.WINNER.bit()) != 0) {
+            log.info("Match winner set to: {}", match.getWinner());
         }
 
         // Update court if changed
@@ -140,7 +78,12 @@ public class MatchUpdateService {
                 !update.getCourtTitle().isEmpty() &&
                 !update.getCourtTitle().equals(match.getCourtTitle())) {
             match.setCourtTitle(update.getCourtTitle());
-            hasChanges = true;
+            changed |= MatchField.COURT_TITLE.bit();
+        }
+        if (update.getCourtUuid() != null &&
+                !update.getCourtUuid().equals(match.getCourtUuid())) {
+            match.setCourtUuid(update.getCourtUuid());
+            changed |= MatchField.COURT_UUID.bit();
         }
 
         // Update timing if present
@@ -148,7 +91,7 @@ public class MatchUpdateService {
             LocalDateTime startTime = parseDateTime(update.getLocalDateMatchStart());
             if (startTime != null && !startTime.equals(match.getLocalDateMatchStart())) {
                 match.setLocalDateMatchStart(startTime);
-                hasChanges = true;
+                changed |= MatchField.LOCAL_DATE_MATCH_START.bit();
             }
         }
 
@@ -156,35 +99,40 @@ public class MatchUpdateService {
             LocalDateTime completedTime = parseDateTime(update.getLocalDateMatchCompleted());
             if (completedTime != null && !completedTime.equals(match.getLocalDateMatchCompleted())) {
                 match.setLocalDateMatchCompleted(completedTime);
-                hasChanges = true;
+                changed |= MatchField.LOCAL_DATE_MATCH_COMPLETED.bit();
             }
         }
 
-        if (hasChanges) {
+        if (changed != 0) {
             match.setLastUpdate(LocalDateTime.now());
-            matchRepository.save(match);
-
-            log.info("Match {} updated - Game 1: {}-{}, Game 2: {}-{}, Game 3: {}-{}, Status: {}",
-                    match.getMatchUuid(),
-                    match.getTeamOneGameOneScore(), match.getTeamTwoGameOneScore(),
-                    match.getTeamOneGameTwoScore(), match.getTeamTwoGameTwoScore(),
-                    match.getTeamOneGameThreeScore(), match.getTeamTwoGameThreeScore(),
-                    match.getMatchStatus()
-            );
-
-            // Broadcast update via WebSocket to connected clients
-            try {
-                messagingTemplate.convertAndSend(
-                        "/topic/matches/" + update.getMatchUuid(),
-                        update
-                );
-                log.debug("Broadcast update to WebSocket subscribers");
-            } catch (Exception e) {
-                log.error("Error broadcasting WebSocket message", e);
-            }
-        } else {
-            log.debug("No changes detected for match {}", match.getMatchUuid());
         }
+        return changed;
+    }
+
+    private void broadcast(LiveMatchStore.Change change) {
+        Match match = change.updated();
+
+        // Broadcast only the changed fields via WebSocket and SSE, before the change is queued for persisting
+        MatchDelta delta = MatchDelta.of(match, change.version(), change.changed());
+        try {
+            int sessions = topicFanout.publish("/topic/matches/" + match.getMatchUuid(), delta);
+            log.debug("Broadcast update to {} WebSocket subscribers", sessions);
+        } catch (Exception e) {
+            log.error("Error broadcasting WebSocket message", e);
+        }
+        matchEventStream.publish(match, delta);
+
+        aggregateTopicPublisher.matchChanged(change.previous(), match);
+        // Also for ticker merges, so an older live state still waiting to be written can't replace the ticker's
+        matchWriteBehind.markDirty(match);
+
+        log.info("Match {} updated - Game 1: {}-{}, Game 2: {}-{}, Game 3: {}-{}, Status: {}",
+                match.getMatchUuid(),
+                match.getTeamOneGameOneScore(), match.getTeamTwoGameOneScore(),
+                match.getTeamOneGameTwoScore(), match.getTeamTwoGameTwoScore(),
+                match.getTeamOneGameThreeScore(), match.getTeamTwoGameThreeScore(),
+                match.getMatchStatus()
+        );
     }
 
     private LocalDateTime parseDateTime(String dateTimeStr) {
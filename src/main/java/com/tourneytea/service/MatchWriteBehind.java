@@ -0,0 +1,175 @@
+package com.tourneytea.service;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.repository.BulkUpsertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists live match changes in the background instead of one transaction per
+ * point. Changed matches are collected by id, so a match that changes several
+ * times between flushes is written once with its latest state, and all collected
+ * matches are written in one batched transaction. Only the columns the live feed
+ * owns are updated, so ticker syncs that wrote the other columns in the meantime
+ * are not undone by the older copy held here. A flush runs every
+ * {@code flush-interval-ms}, or sooner once {@code flush-max-changes} matches
+ * are waiting. Whatever is still waiting at shutdown is flushed before the
+ * application stops.
+ */
+@Slf4j
+@Component
+public class MatchWriteBehind implements DisposableBean {
+
+    private final BulkUpsertRepository bulkUpsertRepository;
+    private final int maxChanges;
+    private final ScheduledExecutorService flusher;
+
+    private final Map<String, Dirty> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong missingRows = new AtomicLong();
+    private volatile int lastFlushSize;
+    private volatile int maxFlushSize;
+    private volatile long lastFlushLagMillis;
+    private volatile long maxFlushLagMillis;
+    private volatile long lastFlushMillis;
+
+    public MatchWriteBehind(
+            BulkUpsertRepository bulkUpsertRepository,
+            @Value("${tourneytea.persistence.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${tourneytea.persistence.flush-max-changes:200}") int maxChanges) {
+        this.bulkUpsertRepository = bulkUpsertRepository;
+        this.maxChanges = Math.max(1, maxChanges);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "match-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue the latest state of a match to be written.
+     */
+    public void markDirty(Match match) {
+        long now = System.currentTimeMillis();
+        // Keep when the match first became dirty, so lag covers the whole wait
+        dirty.merge(match.getMatchUuid(), new Dirty(match, now),
+                (waiting, latest) -> new Dirty(latest.match(), waiting.since()));
+        changes.incrementAndGet();
+
+        if (dirty.size() >= maxChanges && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; destroy() flushes what is left
+            }
+        }
+    }
+
+    /**
+     * Write every waiting match in one batch. Runs on the flusher thread, and once
+     * more from {@link #destroy} after the flusher has stopped.
+     */
+    void flush() {
+        flushRequested.set(false);
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Dirty> batch = new ArrayList<>(dirty.size());
+        for (String matchUuid : dirty.keySet()) {
+            Dirty entry = dirty.remove(matchUuid);
+            if (entry != null) {
+                batch.add(entry);
+            }
+        }
+        List<Match> matches = new ArrayList<>(batch.size());
+        long oldest = Long.MAX_VALUE;
+        for (Dirty entry : batch) {
+            matches.add(entry.match());
+            oldest = Math.min(oldest, entry.since());
+        }
+
+        int updated;
+        try {
+            updated = bulkUpsertRepository.updateLiveColumns(matches);
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            log.error("Write-behind flush of {} matches failed, retrying on the next flush", matches.size(), e);
+            // Put the batch back unless a newer change for the match came in meanwhile
+            batch.forEach(entry -> dirty.putIfAbsent(entry.match().getMatchUuid(), entry));
+            return;
+        }
+
+        if (updated < matches.size()) {
+            // Held matches are loaded from their rows, so this only happens if a row was deleted meanwhile
+            missingRows.addAndGet(matches.size() - updated);
+            log.warn("Write-behind found no row for {} of {} matches", matches.size() - updated, matches.size());
+        }
+
+        long now = System.currentTimeMillis();
+        long lag = now - oldest;
+        flushes.incrementAndGet();
+        written.addAndGet(matches.size());
+        lastFlushSize = matches.size();
+        maxFlushSize = Math.max(maxFlushSize, matches.size());
+        lastFlushLagMillis = lag;
+        maxFlushLagMillis = Math.max(maxFlushLagMillis, lag);
+        lastFlushMillis = now;
+        log.debug("Write-behind flushed {} matches, oldest change waited {}ms", matches.size(), lag);
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        long oldestWaiting = dirty.values().stream().mapToLong(Dirty::since).min().orElse(now);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", dirty.size());
+        stats.put("pendingLagMillis", now - oldestWaiting);
+        stats.put("changes", changes.get());
+        stats.put("flushes", flushes.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("written", written.get());
+        stats.put("missingRows", missingRows.get());
+        // Changes per row written; above 1.0 when several changes to a match shared a flush
+        stats.put("coalescingRatio", written.get() == 0 ? 1.0 : (double) changes.get() / written.get());
+        stats.put("lastFlushSize", lastFlushSize);
+        stats.put("maxFlushSize", maxFlushSize);
+        stats.put("lastFlushLagMillis", lastFlushLagMillis);
+        stats.put("maxFlushLagMillis", maxFlushLagMillis);
+        stats.put("lastFlushAgoMillis", lastFlushMillis == 0 ? null : now - lastFlushMillis);
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        if (!dirty.isEmpty()) {
+            log.error("{} live match changes could not be written on shutdown", dirty.size());
+        }
+    }
+
+    private record Dirty(Match match, long since) {
+    }
+}
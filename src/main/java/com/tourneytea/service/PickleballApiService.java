@@ -1,158 +1,365 @@
 package com.tourneytea.service;
 
 import com.tourneytea.dto.*;
-import com.tourneytea.model.Tournament;
+import com.tourneytea.http.ConcurrencyLimitFilter;
+import com.tourneytea.http.ConditionalRequestFilter;
+import com.tourneytea.http.JsonArrayStreamDecoder;
+import com.tourneytea.model.GameStatus;
 import com.tourneytea.model.Match;
-import com.tourneytea.repository.TournamentRepository;
-import com.tourneytea.repository.MatchRepository;
+import com.tourneytea.model.MatchRawData;
+import com.tourneytea.model.Tournament;
+import com.tourneytea.model.TournamentRawData;
+import com.tourneytea.repository.BulkUpsertRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuples;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 public class PickleballApiService {
 
     private final WebClient webClient;
-    private final TournamentRepository tournamentRepository;
-    private final MatchRepository matchRepository;
+    private final BulkUpsertRepository bulkUpsertRepository;
     private final ObjectMapper objectMapper;
+    private final MatchFingerprints matchFingerprints;
+    private final MatchUpdateService matchUpdateService;
+
+    private final ConcurrencyLimitFilter concurrencyLimit;
+    private final ConditionalRequestFilter responseCache;
+    private final JsonArrayStreamDecoder jsonDecoder;
+    private final int pageConcurrency;
+    private final int saveBatchSize;
+
+    // Totals of the last fully read version of each page, reused when it comes back unchanged
+    private final Map<String, PageSync> lastPages = new ConcurrentHashMap<>();
 
     private static final String BASE_URL = "https://pickleballtournaments.com/api";
 
     public PickleballApiService(
             WebClient.Builder webClientBuilder,
-            TournamentRepository tournamentRepository,
-            MatchRepository matchRepository,
-            ObjectMapper objectMapper) {
+            BulkUpsertRepository bulkUpsertRepository,
+            ObjectMapper objectMapper,
+            MatchFingerprints matchFingerprints,
+            MatchUpdateService matchUpdateService,
+            @Value("${tourneytea.sync.page-concurrency:4}") int pageConcurrency,
+            @Value("${tourneytea.sync.save-batch-size:50}") int saveBatchSize,
+            @Value("${tourneytea.http.max-concurrent-requests:16}") int maxConcurrentRequests,
+            @Value("${tourneytea.http.max-concurrent-requests-per-host:8}") int maxConcurrentRequestsPerHost,
+            @Value("${tourneytea.http.max-compared-body-bytes:2097152}") int maxComparedBodyBytes) {
+        this.concurrencyLimit = new ConcurrencyLimitFilter(maxConcurrentRequests, maxConcurrentRequestsPerHost);
+        this.responseCache = new ConditionalRequestFilter(maxComparedBodyBytes);
+        // Response bodies are decoded as a stream, so no in-memory buffer limit is needed
         this.webClient = webClientBuilder
                 .baseUrl(BASE_URL)
-                .codecs(configurer -> configurer
-                        .defaultCodecs()
-                        .maxInMemorySize(10 * 1024 * 1024)) // 10MB buffer size
+                .filter(concurrencyLimit)
+                .filter(responseCache)
                 .build();
-        this.tournamentRepository = tournamentRepository;
-        this.matchRepository = matchRepository;
+        this.bulkUpsertRepository = bulkUpsertRepository;
         this.objectMapper = objectMapper;
+        this.matchFingerprints = matchFingerprints;
+        this.matchUpdateService = matchUpdateService;
+        this.jsonDecoder = new JsonArrayStreamDecoder(objectMapper);
+        this.pageConcurrency = Math.max(1, pageConcurrency);
+        this.saveBatchSize = Math.max(1, saveBatchSize);
     }
 
     /**
-     * Fetch all PPA tournaments with pagination
+     * Fetch all PPA tournaments with pagination.
+     * Page 1 is fetched first to learn the page count from totalCount, then the
+     * remaining pages are fetched concurrently and saved as they arrive.
      */
     public void fetchAndSaveAllPPATournaments() {
         log.info("Starting to fetch all PPA tournaments");
 
-        int currentPage = 1;
-        int totalSaved = 0;
-
-        while (true) {
-            try {
-                TournamentResponse response = getPPATournaments(currentPage).block();
-
-                if (response == null || response.getData() == null ||
-                        response.getData().getItems().isEmpty()) {
-                    log.info("No more tournaments found. Finished at page {}", currentPage);
-                    break;
-                }
-
-                List<Tournament> tournaments = convertAndSaveTournaments(response.getData().getItems());
-                totalSaved += tournaments.size();
-
-                log.info("Saved {} tournaments from page {}", tournaments.size(), currentPage);
+        PageSync firstPage;
+        try {
+            firstPage = syncTournamentPage(1).block();
+        } catch (Exception e) {
+            log.error("Error fetching tournaments at page 1", e);
+            return;
+        }
 
-                // Check if we got fewer items than expected (indicates last page)
-                if (response.getData().getItems().size() < response.getData().getTotalCount()) {
-                    currentPage++;
-                } else {
-                    // If totalCount equals items size, we might be on the last page
-                    break;
-                }
+        if (firstPage == null || firstPage.items == 0) {
+            log.info("No tournaments found");
+            return;
+        }
 
-            } catch (Exception e) {
-                log.error("Error fetching tournaments at page {}", currentPage, e);
-                break;
-            }
+        int totalPages = (int) ((firstPage.total + firstPage.items - 1) / firstPage.items);
+        int totalSaved = firstPage.saved;
+
+        if (totalPages > 1) {
+            log.info("Fetching {} remaining tournament pages with concurrency {}",
+                    totalPages - 1, pageConcurrency);
+
+            Integer remaining = Flux.range(2, totalPages - 1)
+                    .flatMap(page -> syncTournamentPage(page)
+                                    .onErrorResume(e -> {
+                                        log.error("Error fetching tournaments at page {}", page, e);
+                                        return Mono.empty();
+                                    }),
+                            pageConcurrency)
+                    .map(pageSync -> pageSync.saved)
+                    .reduce(0, Integer::sum)
+                    .block();
+            totalSaved += remaining != null ? remaining : 0;
         }
 
         log.info("Finished fetching tournaments. Total saved: {}", totalSaved);
     }
 
     /**
-     * Fetch tournaments for a specific page
+     * Stream one tournament page, saving tournaments in batches while the page downloads.
      */
-    public Mono<TournamentResponse> getPPATournaments(int page) {
+    private Mono<PageSync> syncTournamentPage(int page) {
+        String cacheKey = "tournaments:" + page;
         log.debug("Fetching PPA tournaments page {}", page);
+
+        return fetchPage(cacheKey, "/getPPATournaments?currentPage={page}", page)
+                .flatMap(response -> {
+                    if (isNotModified(response)) {
+                        log.info("Tournament page {} not modified", page);
+                        return discardBody(response).then(Mono.fromSupplier(() -> notModifiedPage(cacheKey, page)));
+                    }
+
+                    Map<String, Long> scalars = new ConcurrentHashMap<>();
+                    return jsonDecoder.decode(response.getBody(), "items", TournamentItem.class, scalars)
+                            .buffer(saveBatchSize)
+                            .publishOn(Schedulers.boundedElastic())
+                            .reduce(new PageSync(page), (pageSync, items) -> {
+                                pageSync.items += items.size();
+                                pageSync.saved += convertAndSaveTournaments(items);
+                                return pageSync;
+                            })
+                            .map(pageSync -> {
+                                pageSync.total = scalars.getOrDefault("totalCount", 0L);
+                                lastPages.put(cacheKey, pageSync);
+                                log.info("Saved {} tournaments from page {}", pageSync.saved, page);
+                                return pageSync;
+                            });
+                })
+                .doOnError(e -> responseCache.invalidate(cacheKey));
+    }
+
+    /**
+     * GET a page through the response cache. The body is left unread, so callers
+     * can stream-decode it; a 304 status means the page has not changed.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> fetchPage(String cacheKey, String uri, Object... uriVariables) {
         return webClient.get()
-                .uri("/getPPATournaments?currentPage={page}", page)
+                .uri(uri, uriVariables)
+                .attribute(ConditionalRequestFilter.CACHE_KEY, cacheKey)
                 .retrieve()
-                .bodyToMono(TournamentResponse.class)
-                .doOnError(e -> log.error("Error fetching tournaments", e));
+                .toEntityFlux(DataBuffer.class);
     }
 
     /**
-     * Fetch all matches for a tournament with pagination
+     * Read and release a body that isn't decoded, which also frees its request's concurrency permits.
      */
-    public void fetchAndSaveAllMatches(String tournamentSlug, String tournamentId) {
-        log.info("Starting to fetch all matches for tournament: {}", tournamentSlug);
-
-        int currentPage = 1;
-        int totalSaved = 0;
-
-        while (true) {
-            try {
-                TickerResponse response = getTournamentMatches(tournamentSlug, currentPage).block();
+    private Mono<Void> discardBody(ResponseEntity<Flux<DataBuffer>> response) {
+        return response.getBody() != null
+                ? response.getBody().doOnNext(DataBufferUtils::release).then()
+                : Mono.empty();
+    }
 
-                if (response == null || response.getData() == null ||
-                        response.getData().getMatches().isEmpty()) {
-                    log.info("No more matches found for {}. Finished at page {}", tournamentSlug, currentPage);
-                    break;
-                }
+    private boolean isNotModified(ResponseEntity<?> response) {
+        return response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value();
+    }
 
-                List<Match> matches = convertAndSaveMatches(
-                        response.getData().getMatches(),
-                        tournamentId
-                );
-                totalSaved += matches.size();
+    /**
+     * Page totals for an unchanged page, taken from the last time it was read.
+     */
+    private PageSync notModifiedPage(String cacheKey, int page) {
+        PageSync unchanged = new PageSync(page);
+        PageSync last = lastPages.get(cacheKey);
+        if (last != null) {
+            unchanged.items = last.items;
+            unchanged.total = last.total;
+            unchanged.counts.setUnchanged(last.items);
+        }
+        return unchanged;
+    }
 
-                log.info("Saved {} matches from page {} for {}",
-                        matches.size(), currentPage, tournamentSlug);
+    public int getInFlightRequests() {
+        return concurrencyLimit.getInFlight();
+    }
 
-                currentPage++;
+    public int getQueuedRequests() {
+        return concurrencyLimit.getQueued();
+    }
 
-            } catch (Exception e) {
-                log.error("Error fetching matches for tournament {} at page {}",
-                        tournamentSlug, currentPage, e);
-                break;
-            }
-        }
+    public Map<String, Object> getResponseCacheStats() {
+        return responseCache.getStats();
+    }
 
-        log.info("Finished fetching matches for {}. Total saved: {}", tournamentSlug, totalSaved);
+    /**
+     * Fetch and save all ticker pages for a tournament. Page 1 is fetched first to
+     * learn the page count from totalRecords, the remaining pages are fetched
+     * concurrently. Never errors; failures are reported on the returned report.
+     * Go through SyncCoordinator so overlapping syncs of one tournament are coalesced.
+     */
+    public Mono<TournamentSyncReport> syncMatches(String tournamentSlug, String tournamentId) {
+        return Mono.defer(() -> {
+            log.info("Starting to fetch all matches for tournament: {}", tournamentSlug);
+            long start = System.nanoTime();
+            SyncProgress progress = new SyncProgress();
+
+            return syncMatchPage(tournamentSlug, tournamentId, 1, progress)
+                    .flatMap(firstPage -> {
+                        if (firstPage.items == 0) {
+                            log.info("No matches found for {}", tournamentSlug);
+                            return Mono.just(Tuples.of(0, new MatchSyncCounts()));
+                        }
+
+                        int totalPages = (int) ((firstPage.total + firstPage.items - 1) / firstPage.items);
+
+                        Flux<PageSync> remainingPages;
+                        if (firstPage.total <= 0) {
+                            // totalRecords missing: walk pages until an empty one comes back
+                            remainingPages = syncMatchPage(tournamentSlug, tournamentId, 2, progress)
+                                    .expand(pageSync -> pageSync.items == 0
+                                            ? Mono.empty()
+                                            : syncMatchPage(tournamentSlug, tournamentId, pageSync.page + 1,
+                                                    progress))
+                                    .takeWhile(pageSync -> pageSync.items > 0);
+                        } else if (totalPages > 1) {
+                            remainingPages = Flux.range(2, totalPages - 1)
+                                    .flatMap(page -> syncMatchPage(tournamentSlug, tournamentId, page, progress),
+                                            pageConcurrency);
+                        } else {
+                            remainingPages = Flux.empty();
+                        }
+
+                        return remainingPages
+                                .reduce(Tuples.of(1, firstPage.counts),
+                                        (totals, pageSync) -> Tuples.of(totals.getT1() + 1,
+                                                totals.getT2().add(pageSync.counts)));
+                    })
+                    .map(totals -> {
+                        MatchSyncCounts counts = totals.getT2();
+                        log.info("Finished fetching matches for {}. Inserted: {}, updated: {}, unchanged: {}",
+                                tournamentSlug, counts.getInserted(), counts.getUpdated(), counts.getUnchanged());
+                        return new TournamentSyncReport(tournamentSlug, tournamentId, totals.getT1(), counts,
+                                elapsedMillis(start), null);
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Error fetching matches for tournament {}", tournamentSlug, e);
+                        // Batches saved before the failure stay saved, so report them
+                        return Mono.just(new TournamentSyncReport(tournamentSlug, tournamentId, progress.pages(),
+                                progress.counts(), elapsedMillis(start), e.getMessage()));
+                    });
+        });
     }
 
     /**
-     * Fetch matches for a specific page
+     * Stream one ticker page, converting and saving matches in batches while the page downloads.
      */
-    public Mono<TickerResponse> getTournamentMatches(String tournamentSlug, int page) {
+    private Mono<PageSync> syncMatchPage(String tournamentSlug, String tournamentId, int page,
+                                         SyncProgress progress) {
+        String cacheKey = "ticker:" + tournamentSlug + ":" + page;
         log.debug("Fetching matches for tournament: {} page {}", tournamentSlug, page);
-        return webClient.get()
-                .uri("/v2/ticker?current_page={page}&tournament_slug={slug}&event_uuid=",
+
+        return fetchPage(cacheKey, "/v2/ticker?current_page={page}&tournament_slug={slug}&event_uuid=",
                         page, tournamentSlug)
-                .retrieve()
-                .bodyToMono(TickerResponse.class)
-                .doOnError(e -> log.error("Error fetching matches for tournament: {}", tournamentSlug, e));
+                .flatMap(response -> {
+                    if (isNotModified(response)) {
+                        log.info("Page {} for {} not modified", page, tournamentSlug);
+                        return discardBody(response).then(Mono.fromSupplier(() -> {
+                            PageSync unchanged = notModifiedPage(cacheKey, page);
+                            progress.saved(unchanged.counts);
+                            return unchanged;
+                        }));
+                    }
+
+                    Map<String, Long> scalars = new ConcurrentHashMap<>();
+                    return jsonDecoder.decode(response.getBody(), "matches", MatchData.class, scalars)
+                            .buffer(saveBatchSize)
+                            .publishOn(Schedulers.boundedElastic())
+                            .reduce(new PageSync(page), (pageSync, matches) -> {
+                                pageSync.items += matches.size();
+                                MatchSyncCounts batch = convertAndSaveMatches(matches, tournamentId);
+                                pageSync.counts.add(batch);
+                                progress.saved(batch);
+                                return pageSync;
+                            })
+                            .map(pageSync -> {
+                                pageSync.total = scalars.getOrDefault("totalRecords", 0L);
+                                lastPages.put(cacheKey, pageSync);
+                                MatchSyncCounts counts = pageSync.counts;
+                                log.info("Page {} for {}: {} inserted, {} updated, {} unchanged", page,
+                                        tournamentSlug, counts.getInserted(), counts.getUpdated(),
+                                        counts.getUnchanged());
+                                return pageSync;
+                            });
+                })
+                .doOnNext(pageSync -> progress.pageDone())
+                .doOnError(e -> responseCache.invalidate(cacheKey));
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Running totals for one streamed page.
+     */
+    private static final class PageSync {
+        private final int page;
+        private int items;
+        private int saved;
+        private long total;
+        private final MatchSyncCounts counts = new MatchSyncCounts();
+
+        private PageSync(int page) {
+            this.page = page;
+        }
+    }
+
+    /**
+     * What a tournament sync has saved so far, across its concurrently fetched pages.
+     */
+    private static final class SyncProgress {
+        private int pages;
+        private final MatchSyncCounts counts = new MatchSyncCounts();
+
+        private synchronized void saved(MatchSyncCounts batch) {
+            counts.add(batch);
+        }
+
+        private synchronized void pageDone() {
+            pages++;
+        }
+
+        private synchronized int pages() {
+            return pages;
+        }
+
+        private synchronized MatchSyncCounts counts() {
+            return new MatchSyncCounts(counts.getInserted(), counts.getUpdated(), counts.getUnchanged());
+        }
     }
 
     /**
      * Convert API tournament items to domain models and save
      */
-    private List<Tournament> convertAndSaveTournaments(List<TournamentItem> items) {
+    private int convertAndSaveTournaments(List<TournamentItem> items) {
         List<Tournament> tournaments = new ArrayList<>();
+        List<TournamentRawData> rawData = new ArrayList<>();
 
         for (TournamentItem item : items) {
             try {
@@ -174,25 +381,41 @@ public class PickleballApiService {
                 tournament.setLogo(item.getLogo());
                 tournament.setPrice(item.getPrice());
                 tournament.setRegistrationCount(item.getRegistrationCount());
-                tournament.setRawData(objectMapper.writeValueAsString(item));
 
                 tournaments.add(tournament);
+                rawData.add(new TournamentRawData(item.getId(),
+                        RawPayloadCodec.compress(objectMapper.writeValueAsBytes(item))));
             } catch (Exception e) {
                 log.error("Error converting tournament {}", item.getId(), e);
             }
         }
 
-        return tournamentRepository.saveAll(tournaments);
+        return bulkUpsertRepository.upsertTournaments(tournaments, rawData);
     }
 
     /**
-     * Convert API match matchDatas to domain models and save
+     * Convert API match matchDatas to domain models and save.
+     * Matches whose content fingerprint is unchanged since the last sync are skipped.
      */
-    private List<Match> convertAndSaveMatches(List<MatchData> matchDataList, String tournamentId) {
+    private MatchSyncCounts convertAndSaveMatches(List<MatchData> matchDataList, String tournamentId) {
         List<Match> matches = new ArrayList<>();
+        List<MatchRawData> rawData = new ArrayList<>();
+        MatchSyncCounts counts = new MatchSyncCounts();
 
         for (MatchData matchData : matchDataList) {
             try {
+                long fingerprint = MatchFingerprints.of(matchData);
+                Long previous = matchFingerprints.get(tournamentId, matchData.getMatchUuid());
+                if (previous != null && previous == fingerprint) {
+                    counts.setUnchanged(counts.getUnchanged() + 1);
+                    continue;
+                }
+                if (previous == null) {
+                    counts.setInserted(counts.getInserted() + 1);
+                } else {
+                    counts.setUpdated(counts.getUpdated() + 1);
+                }
+
                 Match match = new Match();
                 match.setMatchUuid(matchData.getMatchUuid());
                 match.setTournamentId(tournamentId);
@@ -201,6 +424,7 @@ public class PickleballApiService {
                 match.setRoundText(matchData.getRoundText());
                 match.setRoundNumber(matchData.getRoundNumber());
                 match.setCourtTitle(matchData.getCourtTitle());
+                match.setCourtUuid(matchData.getCourtUuid());
 
                 // Team 1 Players
                 match.setTeamOnePlayerOneUuid(matchData.getTeamOnePlayerOneUuid());
@@ -240,10 +464,12 @@ public class PickleballApiService {
                 match.setWinner(matchData.getWinner());
                 match.setTeamOneWinningPercentage(matchData.getTeamOneWinningPercentage());
 
-                // Game Status
-                match.setGameOneStatus(matchData.getGameOneStatus());
-                match.setGameTwoStatus(matchData.getGameTwoStatus());
-                match.setGameThreeStatus(matchData.getGameThreeStatus());
+                // Game Status, normalized the same way as the live feed writes it
+                match.setGameOneStatus(GameStatus.normalize(matchData.getGameOneStatus()));
+                match.setGameTwoStatus(GameStatus.normalize(matchData.getGameTwoStatus()));
+                match.setGameThreeStatus(GameStatus.normalize(matchData.getGameThreeStatus()));
+                match.setGameFourStatus(GameStatus.normalize(matchData.getGameFourStatus()));
+                match.setGameFiveStatus(GameStatus.normalize(matchData.getGameFiveStatus()));
 
                 // Server Info
                 match.setServer(matchData.getServer());
@@ -257,15 +483,25 @@ public class PickleballApiService {
                 match.setLocalDateMatchAssignedToCourt(parseDateTime(matchData.getLocalDateMatchAssignedToCourt()));
 
                 match.setLastUpdate(LocalDateTime.now());
-                match.setRawData(objectMapper.writeValueAsString(matchData));
+                match.setContentHash(fingerprint);
 
                 matches.add(match);
+                rawData.add(new MatchRawData(matchData.getMatchUuid(),
+                        RawPayloadCodec.compress(objectMapper.writeValueAsBytes(matchData))));
             } catch (Exception e) {
                 log.error("Error converting match {}", matchData.getMatchUuid(), e);
             }
         }
 
-        return matchRepository.saveAll(matches);
+        if (!matches.isEmpty()) {
+            bulkUpsertRepository.upsertMatches(matches, rawData);
+            // Only remember fingerprints once the rows are actually written
+            matches.forEach(match -> matchFingerprints.put(
+                    match.getTournamentId(), match.getMatchUuid(), match.getContentHash()));
+            // Live matches held in memory would otherwise keep serving what they had before this sync
+            matchUpdateService.mergeSynced(matches);
+        }
+        return counts;
     }
 
     private String buildPlayerName(String firstName, String lastName) {
@@ -0,0 +1,63 @@
+package com.tourneytea.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: while a run for a key is in
+ * flight, further callers join it and receive its result instead of starting
+ * another one.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+
+    public CompletableFuture<V> run(K key, Supplier<CompletableFuture<V>> task) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.incrementAndGet();
+            return existing;
+        }
+
+        started.incrementAndGet();
+        CompletableFuture<V> result;
+        try {
+            result = task.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((value, error) -> {
+            // Remove before completing, so callers woken by the result start a fresh run
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight;
+    }
+
+    public boolean isRunning(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public long getStarted() {
+        return started.get();
+    }
+
+    public long getJoined() {
+        return joined.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.tourneytea.service;
+
+import com.tourneytea.dto.SyncJob;
+import com.tourneytea.dto.TournamentSyncReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point for every sync, scheduled or admin-triggered. At most one sync
+ * per tournament slug, and one of the tournament list, runs at a time; callers
+ * arriving while one is running share its result.
+ */
+@Slf4j
+@Service
+public class SyncCoordinator {
+
+    private static final int MAX_FINISHED_JOBS = 200;
+
+    private final PickleballApiService apiService;
+
+    private final SingleFlight<String, TournamentSyncReport> matchSyncs = new SingleFlight<>();
+    private final SingleFlight<String, Void> tournamentSyncs = new SingleFlight<>();
+
+    private final Map<String, SyncJob> jobs = new ConcurrentHashMap<>();
+
+    public SyncCoordinator(PickleballApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    /**
+     * Sync a tournament's matches, or join the sync already running for it.
+     */
+    public CompletableFuture<TournamentSyncReport> syncMatches(String tournamentSlug, String tournamentId) {
+        return matchSyncs.run(tournamentSlug,
+                () -> apiService.syncMatches(tournamentSlug, tournamentId).toFuture());
+    }
+
+    /**
+     * Sync the PPA tournament list, or join the sync already running.
+     */
+    public CompletableFuture<Void> syncTournaments() {
+        return tournamentSyncs.run("tournaments",
+                () -> Mono.<Void>fromRunnable(apiService::fetchAndSaveAllPPATournaments)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .toFuture());
+    }
+
+    public SyncJob submitMatchSync(String tournamentSlug, String tournamentId) {
+        boolean joining = matchSyncs.isRunning(tournamentSlug);
+        return track("matches", tournamentSlug, joining, syncMatches(tournamentSlug, tournamentId));
+    }
+
+    public SyncJob submitTournamentSync() {
+        boolean joining = tournamentSyncs.isRunning("tournaments");
+        return track("tournaments", "tournaments", joining, syncTournaments());
+    }
+
+    public Optional<SyncJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("matchSyncsInFlight", matchSyncs.inFlight());
+        stats.put("matchSyncsStarted", matchSyncs.getStarted());
+        stats.put("matchSyncsJoined", matchSyncs.getJoined());
+        stats.put("tournamentSyncsStarted", tournamentSyncs.getStarted());
+        stats.put("tournamentSyncsJoined", tournamentSyncs.getJoined());
+        return stats;
+    }
+
+    private SyncJob track(String type, String key, boolean joining, CompletableFuture<?> flight) {
+        SyncJob job = new SyncJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setType(type);
+        job.setKey(key);
+        job.setJoinedExisting(joining);
+        job.setSubmittedAt(LocalDateTime.now());
+
+        pruneFinishedJobs();
+        jobs.put(job.getJobId(), job);
+
+        flight.whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                job.setError(cause.getMessage());
+                job.setStatus(SyncJob.Status.FAILED);
+            } else if (result instanceof TournamentSyncReport report && !report.isSuccessful()) {
+                job.setResult(report);
+                job.setError(report.getError());
+                job.setStatus(SyncJob.Status.FAILED);
+            } else {
+                job.setResult(result);
+                job.setStatus(SyncJob.Status.SUCCEEDED);
+            }
+            job.setFinishedAt(LocalDateTime.now());
+            log.info("Sync job {} ({} {}) finished: {}", job.getJobId(), type, key, job.getStatus());
+        });
+        return job;
+    }
+
+    // Drops the jobs that finished longest ago, so a result stays pollable for as long as possible
+    private void pruneFinishedJobs() {
+        int excess = jobs.size() - MAX_FINISHED_JOBS + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.getFinishedAt() != null)
+                .sorted(Comparator.comparing(SyncJob::getFinishedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getJobId()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.tourneytea.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the filter against a local stub server standing in for the upstream API.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private HttpServer server;
+    private WebClient webClient;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/page", exchange -> {
+            byte[] bytes = "{\"data\":{\"matches\":[]}}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        filter = new ConcurrencyLimitFilter(1, 1);
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .filter(filter)
+                .build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void holdsPermitUntilBodyIsRead() {
+        ResponseEntity<Flux<DataBuffer>> response = webClient.get()
+                .uri("/page")
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .block();
+
+        // Headers are in but the body is still unread
+        assertEquals(1, filter.getInFlight());
+
+        response.getBody().doOnNext(DataBufferUtils::release).blockLast();
+        assertEquals(0, filter.getInFlight());
+    }
+}
@@ -0,0 +1,158 @@
+package com.tourneytea.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the filter against a local stub server standing in for the upstream API.
+ */
+class ConditionalRequestFilterTest {
+
+    private HttpServer server;
+    private WebClient webClient;
+    private ConditionalRequestFilter filter;
+
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private volatile String body = "{\"data\":{\"matches\":[]}}";
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/etag", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+            String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            send(exchange, body);
+        });
+        server.createContext("/plain", exchange -> send(exchange, body));
+        server.start();
+
+        filter = new ConditionalRequestFilter();
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .filter(filter)
+                .build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsConditionalRequestsWhenUpstreamHasValidators() {
+        assertEquals(200, get("/etag").getStatusCode().value());
+        assertEquals(304, get("/etag").getStatusCode().value());
+
+        body = "{\"data\":{\"matches\":[{}]}}";
+        ResponseEntity<String> changed = get("/etag");
+        assertEquals(200, changed.getStatusCode().value());
+        assertEquals(body, changed.getBody());
+
+        assertEquals("null", ifNoneMatchHeaders.get(0));
+        assertEquals(ifNoneMatchHeaders.get(1), ifNoneMatchHeaders.get(2));
+        assertEquals(1L, filter.getStats().get("notModified"));
+    }
+
+    @Test
+    void reportsIdenticalBodiesAsNotModified() {
+        assertEquals(200, get("/plain").getStatusCode().value());
+
+        ResponseEntity<String> same = get("/plain");
+        assertEquals(304, same.getStatusCode().value());
+        assertNull(same.getBody());
+
+        body = "{\"data\":{\"matches\":[{}]}}";
+        assertEquals(200, get("/plain").getStatusCode().value());
+        assertEquals(1L, filter.getStats().get("identicalBodies"));
+    }
+
+    @Test
+    void passesBodiesOverTheCapThroughWithoutComparing() {
+        filter = new ConditionalRequestFilter(8);
+        webClient = webClient.mutate().filters(filters -> {
+            filters.clear();
+            filters.add(filter);
+        }).build();
+        body = "{\"data\":{\"matches\":[" + "{},".repeat(10_000) + "{}]}}";
+
+        ResponseEntity<String> first = get("/plain");
+        ResponseEntity<String> second = get("/plain");
+
+        assertEquals(200, second.getStatusCode().value());
+        assertEquals(body, first.getBody());
+        assertEquals(body, second.getBody());
+        assertEquals(2L, filter.getStats().get("tooLargeToCompare"));
+    }
+
+    @Test
+    void subscribesToAnUnvalidatedBodyOnlyOnce() {
+        // A connection's body can only be received once, unlike Flux.just
+        AtomicInteger subscriptions = new AtomicInteger();
+        ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(Flux.defer(() -> subscriptions.incrementAndGet() == 1
+                        ? Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8)))
+                        : Flux.error(new IllegalStateException("body received twice"))))
+                .build());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/plain"))
+                .attribute(ConditionalRequestFilter.CACHE_KEY, "/plain")
+                .build();
+
+        for (int expected : new int[] {200, 304}) {
+            subscriptions.set(0);
+            ClientResponse response = filter.filter(request, upstream).block();
+            assertEquals(expected, response.statusCode().value());
+            response.bodyToMono(String.class).block();
+            assertEquals(1, subscriptions.get());
+        }
+    }
+
+    private ResponseEntity<String> get(String path) {
+        return webClient.get()
+                .uri(path)
+                .attribute(ConditionalRequestFilter.CACHE_KEY, path)
+                .retrieve()
+                .toEntity(String.class)
+                .block();
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
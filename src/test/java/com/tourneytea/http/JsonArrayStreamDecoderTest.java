@@ -0,0 +1,112 @@
+package com.tourneytea.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonArrayStreamDecoderTest {
+
+    private final JsonArrayStreamDecoder decoder = new JsonArrayStreamDecoder(new ObjectMapper());
+
+    @Test
+    void decodesTokensSplitAcrossBuffers() {
+        String json = "{\"data\":{\"totalRecords\":1234,\"matches\":[" +
+                "{\"id\":\"m-1\",\"scores\":[11,9],\"note\":\"a \\\"quoted\\\" name\"}," +
+                "{\"id\":\"m-2\",\"scores\":[],\"score\":-7.5}]}}";
+
+        // Every chunk size, down to one byte per buffer, splits names, strings and numbers differently
+        for (int chunk = 1; chunk <= json.length(); chunk++) {
+            Map<String, Long> scalars = new ConcurrentHashMap<>();
+            List<Item> items = decoder.decode(chunks(json, chunk), "matches", Item.class, scalars)
+                    .collectList().block();
+
+            assertEquals(2, items.size(), "chunk size " + chunk);
+            assertEquals("m-1", items.get(0).id);
+            assertEquals(List.of(11, 9), items.get(0).scores);
+            assertEquals("a \"quoted\" name", items.get(0).note);
+            assertEquals(-7.5, items.get(1).score);
+            assertEquals(1234L, scalars.get("totalRecords"));
+        }
+    }
+
+    @Test
+    void keepsNestedArraysAndObjectsInsideElements() {
+        String json = "{\"other\":[[1],[2,{\"id\":\"skipped\"}]],\"meta\":{\"page\":2}," +
+                "\"matches\":[{\"id\":\"m-1\",\"children\":[{\"id\":\"c-1\",\"children\":[]}]," +
+                "\"matches\":[{\"id\":\"inner\"}]}]," +
+                "\"later\":{\"matches\":[{\"id\":\"after\"}]}}";
+        Map<String, Long> scalars = new ConcurrentHashMap<>();
+
+        List<Item> items = decoder.decode(chunks(json, 7), "matches", Item.class, scalars).collectList().block();
+
+        // Only the first "matches" array is decoded, with each element whole
+        assertEquals(1, items.size());
+        assertEquals("m-1", items.get(0).id);
+        assertEquals("c-1", items.get(0).children.get(0).id);
+        assertEquals("inner", items.get(0).matches.get(0).id);
+        assertEquals(2L, scalars.get("page"));
+    }
+
+    @Test
+    void emptyArrayAndEmptyBodyYieldNothing() {
+        assertEquals(0, decoder.decode(chunks("{\"matches\":[],\"totalRecords\":0}", 3), "matches", Item.class, null)
+                .count().block());
+        assertEquals(0, decoder.decode(chunks("{}", 1), "matches", Item.class, null).count().block());
+        assertEquals(0, decoder.decode(Flux.empty(), "matches", Item.class, null).count().block());
+    }
+
+    @Test
+    void truncatedInputFailsAfterTheCompleteElements() {
+        String json = "{\"matches\":[{\"id\":\"m-1\"},{\"id\":\"m-";
+        List<Item> items = new ArrayList<>();
+
+        Throwable error = assertThrows(RuntimeException.class, () ->
+                decoder.decode(chunks(json, 4), "matches", Item.class, null).doOnNext(items::add).blockLast());
+
+        assertEquals(1, items.size());
+        assertTrue(error instanceof UncheckedIOException || error.getCause() instanceof UncheckedIOException,
+                String.valueOf(error));
+    }
+
+    @Test
+    void malformedInputFails() {
+        Throwable error = assertThrows(RuntimeException.class, () ->
+                decoder.decode(chunks("{\"matches\":[{\"id\" \"m-1\"}]}", 5), "matches", Item.class, null)
+                        .blockLast());
+        assertInstanceOf(UncheckedIOException.class, error);
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            int length = Math.min(size, bytes.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    static class Item {
+        public String id;
+        public List<Integer> scores;
+        public String note;
+        public Double score;
+        public List<Item> children;
+        public List<Item> matches;
+    }
+}
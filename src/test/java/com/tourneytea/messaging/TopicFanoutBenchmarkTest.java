@@ -0,0 +1,57 @@
+package com.tourneytea.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourneytea.dto.MatchDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deliveries per second for one match watched by 10,000 sessions, with a
+ * no-op send standing in for the WebSocket write.
+ */
+@Slf4j
+class TopicFanoutBenchmarkTest {
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int MESSAGES = 200;
+    private static final String TOPIC = "/topic/matches/m-1";
+
+    @Test
+    void fanOutToTenThousandSubscribers() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(SUBSCRIBERS * MESSAGES);
+        AtomicLong bytes = new AtomicLong();
+        TopicFanout fanout = new TopicFanout(new ObjectMapper(), message -> {
+            bytes.addAndGet(((byte[]) message.getPayload()).length);
+            delivered.countDown();
+        }, 4, 256, 512);
+        for (int session = 0; session < SUBSCRIBERS; session++) {
+            fanout.subscribe("session-" + session, "sub-0", TOPIC);
+        }
+
+        long start = System.nanoTime();
+        for (int version = 1; version <= MESSAGES; version++) {
+            fanout.publish(TOPIC, new MatchDelta("m-1", version, 1L, false, Map.of("teamOneGameOneScore", version % 11)));
+        }
+        long publishNanos = System.nanoTime() - start;
+        assertTrue(delivered.await(60, TimeUnit.SECONDS), delivered.getCount() + " deliveries outstanding");
+        long totalNanos = System.nanoTime() - start;
+
+        long deliveries = (long) SUBSCRIBERS * MESSAGES;
+        log.info("Fan-out to {} subscribers: {} deliveries/s, publish {} ms per message, {} bytes delivered",
+                SUBSCRIBERS, deliveries * 1_000_000_000L / totalNanos, publishNanos / MESSAGES / 1_000_000.0, bytes.get());
+
+        Map<String, Object> stats = fanout.getStats();
+        assertEquals((long) MESSAGES, stats.get("published"));
+        assertEquals(deliveries, stats.get("sent"));
+        assertEquals(0L, stats.get("dropped"));
+        fanout.destroy();
+    }
+}
@@ -0,0 +1,143 @@
+package com.tourneytea.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicFanoutTest {
+
+    @Test
+    void takesOverTopicSubscriptionsAndSharesOnePayload() throws Exception {
+        List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        TopicFanout fanout = new TopicFanout(new ObjectMapper(), sent::add, 2, 16, 16);
+        ChannelInterceptor interceptor = fanout.subscriptionInterceptor();
+
+        assertNull(interceptor.preSend(frame(SimpMessageType.SUBSCRIBE, "s1", "sub-0", "/topic/matches/m-1"), null));
+        assertNull(interceptor.preSend(frame(SimpMessageType.SUBSCRIBE, "s2", "sub-0", "/topic/matches/m-1"), null));
+        // Application destinations still go to the annotated handlers
+        assertNotNull(interceptor.preSend(frame(SimpMessageType.SUBSCRIBE, "s1", "sub-1", "/app/matches/m-1/snapshot"), null));
+
+        assertEquals(2, fanout.publish("/topic/matches/m-1", Map.of("version", 1)));
+        awaitSize(sent, 2);
+        assertSame(sent.get(0).getPayload(), sent.get(1).getPayload());
+        assertEquals("sub-0", SimpMessageHeaderAccessor.getSubscriptionId(sent.get(0).getHeaders()));
+
+        interceptor.preSend(frame(SimpMessageType.UNSUBSCRIBE, "s1", "sub-0", null), null);
+        interceptor.preSend(frame(SimpMessageType.DISCONNECT, "s2", null, null), null);
+        assertEquals(0, fanout.subscriberCount("/topic/matches/m-1"));
+        assertEquals(0, fanout.publish("/topic/matches/m-1", Map.of("version", 2)));
+        fanout.destroy();
+    }
+
+    @Test
+    void fansOutTopicMessagesSentThroughTheBroker() throws Exception {
+        List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        TopicFanout fanout = new TopicFanout(new ObjectMapper(), sent::add, 1, 16, 16);
+        ChannelInterceptor interceptor = fanout.brokerInterceptor();
+        fanout.subscribe("s1", "sub-0", "/topic/announcements");
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/topic/announcements");
+        byte[] body = "{\"text\":\"Court 3 delayed\"}".getBytes(StandardCharsets.UTF_8);
+        assertNull(interceptor.preSend(MessageBuilder.createMessage(body, accessor.getMessageHeaders()), null));
+        awaitSize(sent, 1);
+
+        assertSame(body, sent.get(0).getPayload());
+        assertEquals("sub-0", SimpMessageHeaderAccessor.getSubscriptionId(sent.get(0).getHeaders()));
+        fanout.destroy();
+    }
+
+    @Test
+    void sendsTheCurrentStateToANewSubscriberFirst() throws Exception {
+        List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        TopicFanout fanout = new TopicFanout(new ObjectMapper(), sent::add, 1, 16, 16);
+        fanout.registerSnapshotSource("/topic/matches/",
+                destination -> Optional.of(Map.of("matchUuid", destination.substring(15), "snapshot", true)));
+
+        fanout.subscribe("s1", "sub-0", "/topic/matches/m-1");
+        fanout.publish("/topic/matches/m-1", Map.of("version", 1));
+        awaitSize(sent, 2);
+
+        assertTrue(new String((byte[]) sent.get(0).getPayload(), StandardCharsets.UTF_8).contains("\"snapshot\":true"));
+        assertEquals("{\"version\":1}", new String((byte[]) sent.get(1).getPayload(), StandardCharsets.UTF_8));
+        assertEquals(1L, fanout.getStats().get("snapshotsOnSubscribe"));
+        fanout.destroy();
+    }
+
+    @Test
+    void dropsOldestAndDisconnectsASessionThatStopsReading() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+        List<Message<?>> fast = new CopyOnWriteArrayList<>();
+        List<Message<?>> errors = new CopyOnWriteArrayList<>();
+        MessageHandler target = message -> {
+            StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+            if (accessor.getCommand() == StompCommand.ERROR) {
+                errors.add(message);
+            } else if ("slow".equals(accessor.getSessionId())) {
+                try {
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                fast.add(message);
+            }
+        };
+        TopicFanout fanout = new TopicFanout(new ObjectMapper(), target, 2, 4, 8);
+        fanout.subscribe("slow", "sub-0", "/topic/matches/m-1");
+        fanout.subscribe("fast", "sub-0", "/topic/matches/m-1");
+
+        for (int version = 0; version < 20; version++) {
+            fanout.publish("/topic/matches/m-1", Map.of("version", version));
+            // Let the fast session keep up, as a healthy client would
+            awaitSize(fast, version + 1);
+        }
+
+        awaitSize(errors, 1);
+        stuck.countDown();
+        assertEquals("slow", SimpMessageHeaderAccessor.getSessionId(errors.get(0).getHeaders()));
+        assertEquals(20, fast.size());
+        assertEquals(1, fanout.subscriberCount("/topic/matches/m-1"));
+        Map<String, Object> stats = fanout.getStats();
+        assertEquals(1L, stats.get("slowConsumersDisconnected"));
+        assertTrue((long) stats.get("dropped") >= 8);
+        fanout.destroy();
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(list.size() >= size, "expected " + size + " but got " + list.size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.tourneytea.repository;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchRawData;
+import com.tourneytea.service.RawPayloadCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second for a 5,000-match tournament backfill, batched MERGE vs. JPA saveAll.
+ */
+@Slf4j
+@DataJpaTest(showSql = false)
+@Import(BulkUpsertRepository.class)
+class BulkUpsertRepositoryBenchmarkTest {
+
+    private static final int MATCHES = 5_000;
+
+    @Autowired
+    private BulkUpsertRepository bulkUpsertRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchRawDataRepository matchRawDataRepository;
+
+    @Test
+    void backfillTournament() {
+        List<Match> inserts = matches("bulk", 0);
+        long start = System.nanoTime();
+        bulkUpsertRepository.upsertMatches(inserts, rawData(inserts));
+        long insertNanos = System.nanoTime() - start;
+
+        List<Match> updates = matches("bulk", 1);
+        start = System.nanoTime();
+        bulkUpsertRepository.upsertMatches(updates, rawData(updates));
+        long updateNanos = System.nanoTime() - start;
+
+        assertEquals(MATCHES, matchRepository.findByTournamentId("bulk").size());
+        assertEquals(1, matchRepository.findById("bulk-0").orElseThrow().getTeamOneGameOneScore());
+        assertEquals("{\"matchUuid\":\"bulk-0\"}", new String(RawPayloadCodec.decompress(
+                matchRawDataRepository.findById("bulk-0").orElseThrow().getPayload()), StandardCharsets.UTF_8));
+
+        List<Match> jpa = matches("jpa", 0);
+        start = System.nanoTime();
+        matchRepository.saveAll(jpa);
+        matchRepository.flush();
+        long jpaNanos = System.nanoTime() - start;
+
+        log.info("Backfill of {} matches: MERGE insert {} rows/s, MERGE update {} rows/s, JPA saveAll {} rows/s",
+                MATCHES, rowsPerSecond(insertNanos), rowsPerSecond(updateNanos), rowsPerSecond(jpaNanos));
+    }
+
+    private List<Match> matches(String tournamentId, int score) {
+        List<Match> matches = new ArrayList<>(MATCHES);
+        for (int i = 0; i < MATCHES; i++) {
+            Match match = new Match();
+            match.setMatchUuid(tournamentId + "-" + i);
+            match.setTournamentId(tournamentId);
+            match.setEventTitle("Men's Pro Doubles");
+            match.setRoundText("Round of 64");
+            match.setCourtTitle("Court " + (i % 12));
+            match.setTeamOnePlayerOneName("Player " + i);
+            match.setTeamTwoPlayerOneName("Player " + (i + 1));
+            match.setTeamOneGameOneScore(score);
+            match.setTeamTwoGameOneScore(score);
+            match.setMatchStatus(1);
+            match.setLocalDateMatchPlannedStart(LocalDateTime.of(2026, 10, 17, 9, 0));
+            match.setLastUpdate(LocalDateTime.now());
+            match.setContentHash((long) i);
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private List<MatchRawData> rawData(List<Match> matches) {
+        List<MatchRawData> rawData = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            byte[] json = ("{\"matchUuid\":\"" + match.getMatchUuid() + "\"}").getBytes(StandardCharsets.UTF_8);
+            rawData.add(new MatchRawData(match.getMatchUuid(), RawPayloadCodec.compress(json)));
+        }
+        return rawData;
+    }
+
+    private long rowsPerSecond(long nanos) {
+        return MATCHES * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,58 @@
+package com.tourneytea.repository;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchRawData;
+import com.tourneytea.model.Tournament;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(showSql = false)
+class MatchRawDataRepositoryTest {
+
+    @Autowired
+    private MatchRawDataRepository matchRawDataRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Test
+    void deletesPayloadsOfEndedTournamentsAndMissingMatches() {
+        LocalDateTime now = LocalDateTime.now();
+        tournamentRepository.saveAll(List.of(tournament("old", now.minusDays(30)), tournament("current", now)));
+        matchRepository.saveAll(List.of(match("m-old", "old"), match("m-current", "current")));
+        matchRawDataRepository.saveAll(List.of(raw("m-old"), raw("m-current"), raw("m-orphan")));
+
+        int deleted = matchRawDataRepository.deleteForTournamentsEndedBefore(now.minusDays(14));
+
+        assertEquals(2, deleted);
+        assertEquals(List.of("m-current"),
+                matchRawDataRepository.findAll().stream().map(MatchRawData::getMatchUuid).toList());
+    }
+
+    private static Tournament tournament(String id, LocalDateTime dateTo) {
+        Tournament tournament = new Tournament();
+        tournament.setId(id);
+        tournament.setDateTo(dateTo);
+        return tournament;
+    }
+
+    private static Match match(String uuid, String tournamentId) {
+        Match match = new Match();
+        match.setMatchUuid(uuid);
+        match.setTournamentId(tournamentId);
+        return match;
+    }
+
+    private static MatchRawData raw(String matchUuid) {
+        return new MatchRawData(matchUuid, new byte[]{1});
+    }
+}
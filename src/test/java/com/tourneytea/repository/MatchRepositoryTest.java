@@ -0,0 +1,47 @@
+package com.tourneytea.repository;
+
+import com.tourneytea.dto.MatchSummary;
+import com.tourneytea.model.Match;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(showSql = false)
+class MatchRepositoryTest {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Test
+    void pagesFilteredSummariesByCursor() {
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Match match = new Match();
+            match.setMatchUuid(String.format("m-%02d", i));
+            match.setTournamentId("t-1");
+            match.setCourtTitle(i % 2 == 0 ? "Court 1" : "Court 2");
+            match.setMatchStatus(i < 20 ? 2 : 1);
+            matches.add(match);
+        }
+        matchRepository.saveAll(matches);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        List<MatchSummary> page;
+        do {
+            page = matchRepository.findSummariesByTournamentId("t-1", null, null, "Court 1", 2, cursor, Limit.of(4));
+            page.forEach(summary -> seen.add(summary.getMatchUuid()));
+            cursor = page.isEmpty() ? null : page.get(page.size() - 1).getMatchUuid();
+        } while (page.size() == 4);
+
+        // Live matches on Court 1 are the even ones below 20, each exactly once and in order
+        assertEquals(List.of("m-00", "m-02", "m-04", "m-06", "m-08", "m-10", "m-12", "m-14", "m-16", "m-18"), seen);
+        assertEquals(20, matchRepository.countByMatchStatus(2));
+    }
+}
@@ -0,0 +1,79 @@
+package com.tourneytea.service;
+
+import com.tourneytea.dto.MatchBatch;
+import com.tourneytea.messaging.TopicFanout;
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import com.tourneytea.repository.MatchRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AggregateTopicPublisherTest {
+
+    private final TopicFanout topicFanout = mock(TopicFanout.class);
+    private final LiveMatchStore store = new LiveMatchStore(mock(MatchRepository.class), Duration.ofMinutes(2), Duration.ofMinutes(30));
+    // A rate low enough that the scheduled publish never runs during the test
+    private final AggregateTopicPublisher publisher = new AggregateTopicPublisher(topicFanout, store, 0.01);
+
+    @Test
+    void batchesChangesPerTournamentAndCourt() throws Exception {
+        when(topicFanout.subscriberCount(anyString())).thenReturn(1);
+        Match first = match("m-1", "Court 1");
+        Match second = match("m-2", "Court 2");
+        store.refresh(List.of(first, second));
+
+        for (int point = 0; point < 10; point++) {
+            publisher.matchChanged(first, first);
+            publisher.matchChanged(second, second);
+        }
+        Match moved = store.update("m-2", match -> {
+            match.setCourtTitle("Court 1");
+            return MatchField.COURT_TITLE.bit();
+        }).orElseThrow().updated();
+        publisher.matchChanged(second, moved);
+        publisher.publish();
+
+        ArgumentCaptor<Object> batch = ArgumentCaptor.forClass(Object.class);
+        verify(topicFanout).publish(eq("/topic/tournaments/t-1"), batch.capture());
+        assertEquals(2, ((MatchBatch) batch.getValue()).getMatches().size());
+        verify(topicFanout).publish(eq("/topic/courts/Court 1"), batch.capture());
+        assertEquals(2, ((MatchBatch) batch.getValue()).getMatches().size());
+        // The court the match left hears about it too
+        verify(topicFanout).publish(eq("/topic/courts/Court 2"), any());
+        publisher.destroy();
+    }
+
+    @Test
+    void skipsGroupsWithoutSubscribers() throws Exception {
+        Match match = match("m-1", "Court 1");
+        store.refresh(List.of(match));
+
+        publisher.matchChanged(match, match);
+        publisher.publish();
+
+        verify(topicFanout, never()).publish(anyString(), any());
+        assertEquals(2L, publisher.getStats().get("skippedWithoutSubscribers"));
+        publisher.destroy();
+    }
+
+    private static Match match(String matchUuid, String courtTitle) {
+        Match match = new Match();
+        match.setMatchUuid(matchUuid);
+        match.setTournamentId("t-1");
+        match.setCourtTitle(courtTitle);
+        match.setMatchStatus(2);
+        return match;
+    }
+}
@@ -0,0 +1,91 @@
+package com.tourneytea.service;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import com.tourneytea.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LiveMatchStoreTest {
+
+    private final LiveMatchStore store = new LiveMatchStore(mock(MatchRepository.class), Duration.ofMinutes(2), Duration.ofMinutes(30));
+
+    @BeforeEach
+    void loadLiveMatch() {
+        store.refresh(List.of(match("Old Name", 7)));
+    }
+
+    @Test
+    void refreshTakesDatabaseDetailsWithoutANewVersion() {
+        long before = store.snapshot("m-1").orElseThrow().getVersion();
+
+        Match row = match("New Name", 3);
+        row.setContentHash(42L);
+        store.refresh(List.of(row));
+
+        Match held = store.get("m-1").orElseThrow();
+        assertEquals("New Name", held.getTeamOnePlayerOneName());
+        assertEquals(42L, held.getContentHash());
+        assertEquals(7, held.getTeamOneGameOneScore());
+        // Clients are never sent these fields, so they see no gap
+        assertEquals(before, store.snapshot("m-1").orElseThrow().getVersion());
+    }
+
+    @Test
+    void concurrentChangesToAMatchAreNotLost() throws Exception {
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<Void> live = CompletableFuture.runAsync(() -> store.update("m-1", match -> {
+            applying.countDown();
+            await(proceed);
+            match.setTeamOneGameOneScore(8);
+            return MatchField.TEAM_ONE_GAME_ONE_SCORE.bit();
+        }));
+        assertTrue(applying.await(5, TimeUnit.SECONDS));
+
+        // A ticker merge lands while the live update is between its read and its write
+        CompletableFuture<Void> merge = CompletableFuture.runAsync(() -> store.update("m-1", match -> {
+            LiveMatchStore.takeNotLiveOwned(match("New Name", 5), match);
+            return 0;
+        }));
+        Thread.sleep(50);
+        assertFalse(merge.isDone());
+
+        proceed.countDown();
+        live.get(5, TimeUnit.SECONDS);
+        merge.get(5, TimeUnit.SECONDS);
+
+        Match held = store.get("m-1").orElseThrow();
+        assertEquals(8, held.getTeamOneGameOneScore());
+        assertEquals("New Name", held.getTeamOnePlayerOneName());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Match match(String playerName, int score) {
+        Match match = new Match();
+        match.setMatchUuid("m-1");
+        match.setTournamentId("t-1");
+        match.setTeamOnePlayerOneName(playerName);
+        match.setMatchStatus(2);
+        match.setTeamOneGameOneScore(score);
+        return match;
+    }
+}
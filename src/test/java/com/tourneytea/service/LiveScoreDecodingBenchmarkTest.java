@@ -0,0 +1,207 @@
+package com.tourneytea.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourneytea.http.SseFrameDecoder;
+import com.tourneytea.model.GameStatus;
+import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.ScoreSlot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Events per second and bytes allocated per event for the byte-level SSE decoder
+ * against the previous String/Map path (split lines, readValue into a Map, then
+ * boxed lookups per field).
+ */
+@Slf4j
+class LiveScoreDecodingBenchmarkTest {
+
+    private static final int EVENTS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decodeLiveScoreEvents() {
+        List<String> messages = new ArrayList<>(EVENTS);
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < EVENTS; i++) {
+            String message = "event: update\ndata: " + event(i);
+            messages.add(message);
+            stream.append(message).append("\n\n");
+        }
+        byte[] body = stream.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<LiveScoreUpdate> legacy = new ArrayList<>(EVENTS);
+        List<LiveScoreUpdate> decoded = new ArrayList<>(EVENTS);
+        legacy(messages, legacy::add);
+        bytes(body, decoded::add);
+        assertEquals(EVENTS, decoded.size());
+        for (int i = 0; i < EVENTS; i += 997) {
+            assertSameFields(legacy.get(i), decoded.get(i));
+        }
+
+        Measurement legacyPath = measure(() -> legacy(messages, update -> { }));
+        Measurement bytePath = measure(() -> bytes(body, update -> { }));
+
+        log.info("Legacy String/Map path: {} events/s, {} bytes/event", legacyPath.eventsPerSecond, legacyPath.bytesPerEvent);
+        log.info("Byte frame decoder:     {} events/s, {} bytes/event", bytePath.eventsPerSecond, bytePath.bytesPerEvent);
+        assertTrue(bytePath.bytesPerEvent < legacyPath.bytesPerEvent);
+    }
+
+    private void bytes(byte[] body, Consumer<LiveScoreUpdate> sink) {
+        LiveScoreUpdateReader reader = new LiveScoreUpdateReader(objectMapper.getFactory(), false);
+        SseFrameDecoder frames = new SseFrameDecoder();
+        // Feed in network-sized chunks so events straddle chunk boundaries
+        for (int offset = 0; offset < body.length; offset += 8192) {
+            frames.feed(body, offset, Math.min(8192, body.length - offset), (event, data, off, len) -> {
+                try {
+                    LiveScoreUpdate update = reader.read(data, off, len);
+                    update.setEventType(event);
+                    sink.accept(update);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void legacy(List<String> messages, Consumer<LiveScoreUpdate> sink) {
+        for (String message : messages) {
+            String eventType = "message";
+            String data = null;
+            if (message.contains("event:") || message.contains("data:")) {
+                for (String line : message.split("\n")) {
+                    if (line.startsWith("event:")) {
+                        eventType = line.substring(6).trim();
+                    } else if (line.startsWith("data:")) {
+                        data = line.substring(5).trim();
+                    }
+                }
+            }
+            try {
+                Map<String, Object> map = objectMapper.readValue(data, Map.class);
+                LiveScoreUpdate update = legacyUpdate(map);
+                update.setEventType(eventType);
+                sink.accept(update);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private LiveScoreUpdate legacyUpdate(Map<String, Object> data) {
+        LiveScoreUpdate update = new LiveScoreUpdate();
+        update.setMatchUuid((String) data.get("matchUuid"));
+        for (ScoreSlot slot : ScoreSlot.values()) {
+            if (slot.isStatus()) {
+                int code = GameStatus.code(getString(data, slot.jsonName()));
+                if (code >= 0) {
+                    update.getScore().set(slot, code);
+                }
+            } else {
+                Integer value = getInteger(data, slot.jsonName());
+                if (value != null) {
+                    update.getScore().set(slot, value);
+                }
+            }
+        }
+        update.setCourtUuid(getString(data, "courtUuid"));
+        update.setCourtTitle(getString(data, "courtTitle"));
+        update.setTeamOnePlayerOneFirstName(getString(data, "teamOnePlayerOneFirstName"));
+        update.setTeamOnePlayerOneLastName(getString(data, "teamOnePlayerOneLastName"));
+        update.setTeamOnePlayerTwoFirstName(getString(data, "teamOnePlayerTwoFirstName"));
+        update.setTeamOnePlayerTwoLastName(getString(data, "teamOnePlayerTwoLastName"));
+        update.setTeamTwoPlayerOneFirstName(getString(data, "teamTwoPlayerOneFirstName"));
+        update.setTeamTwoPlayerOneLastName(getString(data, "teamTwoPlayerOneLastName"));
+        update.setTeamTwoPlayerTwoFirstName(getString(data, "teamTwoPlayerTwoFirstName"));
+        update.setTeamTwoPlayerTwoLastName(getString(data, "teamTwoPlayerTwoLastName"));
+        update.setLocalDateMatchStart(getString(data, "localDateMatchStart"));
+        update.setLocalDateMatchCompleted(getString(data, "localDateMatchCompleted"));
+        update.setLocalDateMatchPlannedStart(getString(data, "localDateMatchPlannedStart"));
+        update.setLocalDateMatchAssignedToCourt(getString(data, "localDateMatchAssignedToCourt"));
+        update.setTimestamp(java.time.LocalDateTime.now());
+        update.setRawData(data);
+        return update;
+    }
+
+    private Integer getInteger(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String getString(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value == null) {
+            return null;
+        }
+        String str = value.toString();
+        return str.isEmpty() ? null : str;
+    }
+
+    private static String event(int i) {
+        return "{\"matchUuid\":\"6f1c2d3e-0000-4000-8000-" + String.format("%012d", i % 400) + "\","
+                + "\"server\":" + (i % 2 + 1) + ",\"serverFromTeam\":" + (i % 2 + 1) + ",\"currentServingNumber\":1,"
+                + "\"matchStatus\":2,\"matchCompletedType\":0,\"winner\":0,\"currentGame\":2,"
+                + "\"teamOneGameOneScore\":11,\"teamTwoGameOneScore\":" + (i % 10) + ","
+                + "\"teamOneGameTwoScore\":" + (i % 11) + ",\"teamTwoGameTwoScore\":\"" + (i % 9) + "\","
+                + "\"teamOneGameThreeScore\":null,\"teamTwoGameThreeScore\":null,"
+                + "\"gameOneStatus\":\"COMPLETED\",\"gameTwoStatus\":\"IN_PROGRESS\",\"gameThreeStatus\":\"\","
+                + "\"courtUuid\":\"c0ffee00-0000-4000-8000-000000000007\",\"courtTitle\":\"Championship Court\","
+                + "\"teamOnePlayerOneFirstName\":\"Ben\",\"teamOnePlayerOneLastName\":\"Johns\","
+                + "\"teamOnePlayerTwoFirstName\":\"Collin\",\"teamOnePlayerTwoLastName\":\"Johns\","
+                + "\"teamTwoPlayerOneFirstName\":\"Federico\",\"teamTwoPlayerOneLastName\":\"Staksrud\","
+                + "\"teamTwoPlayerTwoFirstName\":\"Andrei\",\"teamTwoPlayerTwoLastName\":\"Daescu\","
+                + "\"localDateMatchStart\":\"2026-10-17T10:02:00\",\"localDateMatchPlannedStart\":\"2026-10-17T10:00:00\","
+                + "\"extra\":{\"ignored\":[1,2,3]}}";
+    }
+
+    private static void assertSameFields(LiveScoreUpdate expected, LiveScoreUpdate actual) {
+        expected.setTimestamp(null);
+        expected.setRawData(null);
+        actual.setTimestamp(null);
+        assertEquals(expected, actual);
+    }
+
+    private Measurement measure(Runnable run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ROUNDS; i++) {
+            run.run();
+        }
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            run.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        long events = (long) EVENTS * ROUNDS;
+        return new Measurement(events * 1_000_000_000L / Math.max(1, nanos), allocated / events);
+    }
+
+    private record Measurement(long eventsPerSecond, long bytesPerEvent) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.tourneytea.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.Match;
+import com.tourneytea.repository.TournamentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the shards against a local fake SSE server standing in for rte.pbgql.co.
+ */
+class LiveScoreStreamServiceTest {
+
+    private HttpServer server;
+    private LiveScoreStreamService service;
+    private LiveUpdateDispatcher dispatcher;
+
+    private final CountDownLatch shutdown = new CountDownLatch(1);
+    private final Map<String, AtomicInteger> connectsByFirstMatch = new ConcurrentHashMap<>();
+    private final Set<String> received = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/live-scoring", this::stream);
+        server.start();
+
+        MatchUpdateService matchUpdateService = mock(MatchUpdateService.class);
+        doAnswer(invocation -> received.add(invocation.<LiveScoreUpdate>getArgument(0).getMatchUuid()))
+                .when(matchUpdateService).processUpdate(any());
+
+        dispatcher = new LiveUpdateDispatcher(matchUpdateService, 2, 100, Duration.ZERO);
+        service = new LiveScoreStreamService(
+                WebClient.builder(),
+                new ObjectMapper(),
+                dispatcher,
+                mock(SyncCoordinator.class),
+                mock(TournamentRepository.class),
+                "http://localhost:" + server.getAddress().getPort(),
+                4096,
+                4,
+                Duration.ofMillis(50),
+                Duration.ofMillis(200),
+                false);
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        service.destroy();
+        dispatcher.destroy();
+        shutdown.countDown();
+        server.stop(0);
+    }
+
+    /**
+     * Sends one event per requested match and holds the stream open. The first
+     * connection for tournament "a" fails so that shard has to reconnect.
+     */
+    private void stream(HttpExchange exchange) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst("X-Request-Matches");
+        String[] matchIds = new String(Base64.getDecoder().decode(header), StandardCharsets.UTF_8).split(",");
+        int connects = connectsByFirstMatch.computeIfAbsent(matchIds[0], k -> new AtomicInteger()).incrementAndGet();
+
+        if (matchIds[0].startsWith("x-")) {
+            exchange.sendResponseHeaders(400, -1);
+            exchange.close();
+            return;
+        }
+        if (matchIds[0].startsWith("a-") && connects == 1) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String matchId : matchIds) {
+                out.write(("event: update\ndata: {\"matchUuid\":\"" + matchId + "\",\"teamOneGameOneScore\":3}\n\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            shutdown.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // client disconnected
+        }
+    }
+
+    @Test
+    void partitionsKeepEncodedHeaderUnderLimit() {
+        List<String> matchIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            matchIds.add(UUID.randomUUID().toString());
+        }
+
+        List<List<String>> parts = LiveScoreStreamService.partition(matchIds, 512);
+
+        assertEquals(matchIds, parts.stream().flatMap(List::stream).toList());
+        for (List<String> part : parts) {
+            int encoded = Base64.getEncoder().encode(String.join(",", part).getBytes(StandardCharsets.UTF_8)).length;
+            assertTrue(encoded <= 512, "header of " + encoded + " bytes");
+        }
+        assertTrue(parts.size() > 1);
+    }
+
+    @Test
+    void shardsByTournamentAndReconnectsIndependently() throws InterruptedException {
+        service.connectToLiveScores(List.of(
+                match("a-1", "a"), match("a-2", "a"),
+                match("b-1", "b"), match("b-2", "b")));
+
+        waitUntil(() -> received.containsAll(Set.of("a-1", "a-2", "b-1", "b-2")));
+
+        assertEquals(2, service.getShardHealth().size());
+        assertEquals(2, connectsByFirstMatch.get("a-1").get());
+        assertEquals(1, connectsByFirstMatch.get("b-1").get());
+
+        // A match joining tournament b leaves the existing shards connected
+        service.connectToLiveScores(List.of(
+                match("a-1", "a"), match("a-2", "a"),
+                match("b-1", "b"), match("b-2", "b"), match("b-3", "b")));
+
+        waitUntil(() -> received.contains("b-3"));
+        assertEquals(3, service.getShardHealth().size());
+        assertEquals(2, connectsByFirstMatch.get("a-1").get());
+        assertEquals(1, connectsByFirstMatch.get("b-1").get());
+        assertEquals(2L, service.getStats().get("reconnectsAvoided"));
+    }
+
+    @Test
+    void closesEveryShardOnceNoMatchIsLive() throws InterruptedException {
+        service.connectToLiveScores(List.of(match("b-1", "b"), match("c-1", "c")));
+        waitUntil(() -> received.containsAll(Set.of("b-1", "c-1")));
+
+        service.connectToLiveScores(List.of());
+
+        assertEquals(0, service.getShardHealth().size());
+        assertEquals(2L, service.getStats().get("shardsClosed"));
+        assertEquals(0, service.getStats().get("subscribedMatches"));
+    }
+
+    @Test
+    void stopsRetryingOnClientErrors() throws InterruptedException {
+        service.connectToLiveScores(List.of(match("x-1", "x")));
+
+        waitUntil(() -> Long.valueOf(1).equals(service.getStats().get("failedShards")));
+        Thread.sleep(300);
+        assertEquals(1, connectsByFirstMatch.get("x-1").get());
+        assertEquals("FAILED", String.valueOf(service.getShardHealth().get(0).get("state")));
+    }
+
+    private static Match match(String matchUuid, String tournamentId) {
+        Match match = new Match();
+        match.setMatchUuid(matchUuid);
+        match.setTournamentId(tournamentId);
+        return match;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+}
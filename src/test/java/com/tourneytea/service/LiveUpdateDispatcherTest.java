@@ -0,0 +1,142 @@
+package com.tourneytea.service;
+
+import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.ScoreSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class LiveUpdateDispatcherTest {
+
+    @Test
+    void keepsPerMatchOrderWithoutBlockingTheCaller() throws InterruptedException {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        LiveUpdateDispatcher dispatcher = new LiveUpdateDispatcher(slowService(seen, 5), 4, 1_000, Duration.ZERO);
+
+        long start = System.nanoTime();
+        for (int score = 0; score < 50; score++) {
+            for (int match = 0; match < 4; match++) {
+                assertTrue(dispatcher.dispatch(update("match-" + match, score)));
+            }
+        }
+        long dispatchMillis = (System.nanoTime() - start) / 1_000_000;
+        // 200 updates at 5ms each would take a second if processed on the caller
+        assertTrue(dispatchMillis < 200, "dispatch took " + dispatchMillis + "ms");
+
+        dispatcher.destroy();
+        for (int match = 0; match < 4; match++) {
+            List<Integer> scores = seen.get("match-" + match);
+            for (int i = 1; i < scores.size(); i++) {
+                assertTrue(scores.get(i) > scores.get(i - 1), "out of order: " + scores);
+            }
+            assertEquals(49, scores.get(scores.size() - 1));
+        }
+    }
+
+    @Test
+    void conflatesUpdatesThatArriveWhileAMatchIsPending() throws InterruptedException {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        LiveUpdateDispatcher dispatcher = new LiveUpdateDispatcher(slowService(seen, 20), 1, 1_000, Duration.ZERO);
+
+        for (int score = 0; score < 100; score++) {
+            LiveScoreUpdate update = update("match-0", score);
+            if (score == 0) {
+                update.setCourtTitle("Court 1");
+            }
+            dispatcher.dispatch(update);
+        }
+        dispatcher.destroy();
+
+        List<Integer> scores = seen.get("match-0");
+        assertTrue(scores.size() < 10, "processed " + scores.size() + " updates");
+        assertEquals(99, scores.get(scores.size() - 1));
+        assertEquals(100L, dispatcher.getStats().get("dispatched"));
+        assertTrue((double) dispatcher.getStats().get("conflationRatio") > 10);
+    }
+
+    @Test
+    void mergedUpdateKeepsFieldsTheNewerUpdateLeavesOut() {
+        LiveScoreUpdate older = update("match-0", 3);
+        older.setCourtTitle("Court 1");
+        LiveScoreUpdate newer = update("match-0", 4);
+
+        older.mergeFrom(newer);
+
+        assertEquals(4, older.getScore().get(ScoreSlot.TEAM_ONE_GAME_ONE_SCORE));
+        assertEquals("Court 1", older.getCourtTitle());
+    }
+
+    @Test
+    void dropsAndCountsUpdatesWhenAWorkerFallsBehind() throws InterruptedException {
+        LiveUpdateDispatcher dispatcher = new LiveUpdateDispatcher(
+                slowService(new ConcurrentHashMap<>(), 50), 1, 2, Duration.ZERO);
+
+        int accepted = 0;
+        for (int match = 0; match < 10; match++) {
+            if (dispatcher.dispatch(update("match-" + match, 1))) {
+                accepted++;
+            }
+        }
+
+        assertFalse(accepted == 10);
+        assertEquals((long) (10 - accepted), dispatcher.getStats().get("overflowed"));
+        dispatcher.destroy();
+    }
+
+    @Test
+    void suppressesResentUpdatesAndUpdatesFromSupersededConnections() throws InterruptedException {
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        LiveUpdateDispatcher dispatcher = new LiveUpdateDispatcher(slowService(seen, 0), 1, 1_000, Duration.ZERO);
+
+        dispatcher.dispatch(update("match-0", 4, 1));
+        dispatcher.dispatch(update("match-0", 4, 1));
+        // The same state again on a new connection is still a duplicate
+        dispatcher.dispatch(update("match-0", 4, 2));
+        dispatcher.dispatch(update("match-0", 5, 2));
+        // The old connection catching up late
+        dispatcher.dispatch(update("match-0", 6, 1));
+        dispatcher.destroy();
+
+        List<Integer> scores = seen.get("match-0");
+        assertEquals(5, scores.get(scores.size() - 1));
+        assertFalse(scores.contains(6));
+        assertEquals(2L, dispatcher.getStats().get("suppressedDuplicates"));
+        assertEquals(1L, dispatcher.getStats().get("suppressedStale"));
+    }
+
+    private static MatchUpdateService slowService(Map<String, List<Integer>> seen, long millis) {
+        MatchUpdateService service = mock(MatchUpdateService.class);
+        doAnswer(invocation -> {
+            LiveScoreUpdate update = invocation.getArgument(0);
+            Thread.sleep(millis);
+            seen.computeIfAbsent(update.getMatchUuid(), k -> new CopyOnWriteArrayList<>())
+                    .add(update.getScore().get(ScoreSlot.TEAM_ONE_GAME_ONE_SCORE));
+            return null;
+        }).when(service).processUpdate(any());
+        return service;
+    }
+
+    private static LiveScoreUpdate update(String matchUuid, int score) {
+        LiveScoreUpdate update = new LiveScoreUpdate();
+        update.setMatchUuid(matchUuid);
+        update.getScore().set(ScoreSlot.TEAM_ONE_GAME_ONE_SCORE, score);
+        return update;
+    }
+
+    private static LiveScoreUpdate update(String matchUuid, int score, long connection) {
+        LiveScoreUpdate update = update(matchUuid, score);
+        update.setConnection(connection);
+        return update;
+    }
+}
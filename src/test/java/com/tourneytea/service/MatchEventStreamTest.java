@@ -0,0 +1,127 @@
+package com.tourneytea.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import com.tourneytea.repository.MatchRepository;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class MatchEventStreamTest {
+
+    private final LiveMatchStore store = new LiveMatchStore(mock(MatchRepository.class), Duration.ofMinutes(2), Duration.ofMinutes(30));
+    private final MatchEventStream stream = new MatchEventStream(new ObjectMapper(), store,
+            Duration.ofMinutes(1), 100, 4, Duration.ofMinutes(1));
+
+    @Test
+    void resumesFromLastEventIdWithoutGapsOrRepeats() {
+        Match match = match("m-1", "t-1");
+        store.refresh(List.of(match));
+        List<ServerSentEvent<String>> first = new CopyOnWriteArrayList<>();
+        Disposable connection = stream.matches(Set.of("m-1"), null).subscribe(first::add);
+        publish(match, 1);
+        publish(match, 2);
+        connection.dispose();
+
+        // Published while the client was away
+        publish(match, 3);
+        publish(match, 4);
+
+        String lastEventId = first.get(first.size() - 1).id();
+        List<ServerSentEvent<String>> resumed = new CopyOnWriteArrayList<>();
+        stream.matches(Set.of("m-1"), lastEventId).subscribe(resumed::add);
+        publish(match, 5);
+
+        // The first connection opened with a snapshot, then versions 1 and 2
+        assertEquals(3, first.size());
+        assertTrue(first.get(0).data().contains("\"snapshot\":true"));
+        assertEquals(List.of(3L, 4L, 5L), resumed.stream().map(MatchEventStreamTest::version).toList());
+    }
+
+    @Test
+    void unknownLastEventIdStartsWithSnapshots() {
+        store.refresh(List.of(match("m-1", "t-1"), match("m-2", "t-1"), match("m-3", "t-2")));
+
+        List<ServerSentEvent<String>> events = new CopyOnWriteArrayList<>();
+        stream.tournament("t-1", "12").subscribe(events::add);
+
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(event -> event.data().contains("\"snapshot\":true")));
+        assertEquals(2L, stream.getStats().get("snapshotsSent"));
+    }
+
+    @Test
+    void replaysWhatIsPublishedWhileSnapshotsAreRead() {
+        Match match = match("m-1", "t-1");
+        MatchEventStream[] racing = new MatchEventStream[1];
+        // A point lands after the snapshots were read but before the stream registered
+        LiveMatchStore slowStore = new LiveMatchStore(mock(MatchRepository.class), Duration.ofMinutes(2), Duration.ofMinutes(30)) {
+            @Override
+            public List<MatchDelta> snapshots(Predicate<Match> filter) {
+                List<MatchDelta> snapshots = super.snapshots(filter);
+                racing[0].publish(match, MatchDelta.of(match, 7, MatchField.TEAM_ONE_GAME_ONE_SCORE.bit()));
+                return snapshots;
+            }
+        };
+        slowStore.refresh(List.of(match));
+        racing[0] = new MatchEventStream(new ObjectMapper(), slowStore, Duration.ofMinutes(1), 100, 4, Duration.ofMinutes(1));
+
+        List<ServerSentEvent<String>> events = new CopyOnWriteArrayList<>();
+        racing[0].tournament("t-1", null).subscribe(events::add);
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).data().contains("\"snapshot\":true"));
+        assertEquals(7L, version(events.get(1)));
+        assertTrue(Long.parseLong(events.get(0).id()) < Long.parseLong(events.get(1).id()));
+    }
+
+    @Test
+    void streamThatFallsBehindIsEnded() {
+        Match match = match("m-1", "t-1");
+        // Requests nothing, so events pile up in its buffer
+        stream.tournament("t-1", null).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+            }
+        });
+        for (int version = 1; version <= 20; version++) {
+            publish(match, version);
+        }
+
+        assertEquals(1L, stream.getStats().get("overflowed"));
+        assertEquals(0, stream.getStats().get("subscribers"));
+    }
+
+    private void publish(Match match, long version) {
+        stream.publish(match, MatchDelta.of(match, version, MatchField.TEAM_ONE_GAME_ONE_SCORE.bit()));
+    }
+
+    private static long version(ServerSentEvent<String> event) {
+        String data = event.data();
+        int start = data.indexOf("\"version\":") + 10;
+        int end = data.indexOf(',', start);
+        return Long.parseLong(data.substring(start, end));
+    }
+
+    private static Match match(String uuid, String tournamentId) {
+        Match match = new Match();
+        match.setMatchUuid(uuid);
+        match.setTournamentId(tournamentId);
+        match.setMatchStatus(2);
+        return match;
+    }
+}
@@ -0,0 +1,187 @@
+package com.tourneytea.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourneytea.dto.MatchDelta;
+import com.tourneytea.messaging.TopicFanout;
+import com.tourneytea.model.GameStatus;
+import com.tourneytea.model.LiveScoreUpdate;
+import com.tourneytea.model.Match;
+import com.tourneytea.model.MatchField;
+import com.tourneytea.model.ScoreSlot;
+import com.tourneytea.repository.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Slf4j
+class MatchUpdateServiceTest {
+
+    private final TopicFanout topicFanout = mock(TopicFanout.class);
+    private final LiveMatchStore store = new LiveMatchStore(mock(MatchRepository.class), Duration.ofMinutes(2), Duration.ofMinutes(30));
+    private final MatchEventStream eventStream = mock(MatchEventStream.class);
+    private final MatchUpdateService service = new MatchUpdateService(topicFanout, store, mock(MatchWriteBehind.class),
+            mock(AggregateTopicPublisher.class), eventStream);
+
+    @BeforeEach
+    void loadLiveMatch() {
+        Match match = new Match();
+        match.setMatchUuid("m-1");
+        match.setMatchStatus(2);
+        match.setCourtTitle("Championship Court");
+        match.setTeamOneGameOneScore(4);
+        match.setTeamTwoGameOneScore(2);
+        match.setServer(1);
+        match.setServerFromTeam(1);
+        match.setCurrentServingNumber(1);
+        store.refresh(List.of(match));
+    }
+
+    @Test
+    void broadcastsOnlyChangedFieldsWithIncreasingVersions() throws Exception {
+        service.processUpdate(point(5));
+        service.processUpdate(point(6));
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(topicFanout, times(2)).publish(eq("/topic/matches/m-1"), payloads.capture());
+        MatchDelta first = (MatchDelta) payloads.getAllValues().get(0);
+        MatchDelta second = (MatchDelta) payloads.getAllValues().get(1);
+
+        assertEquals(6, second.getFields().get("teamOneGameOneScore"));
+        assertTrue((second.getChanged() & MatchField.TEAM_ONE_GAME_ONE_SCORE.bit()) != 0);
+        assertTrue((second.getChanged() & MatchField.COURT_TITLE.bit()) == 0);
+        assertEquals(first.getVersion() + 1, second.getVersion());
+
+        MatchDelta snapshot = store.snapshot("m-1").orElseThrow();
+        assertTrue(snapshot.isSnapshot());
+        assertEquals(second.getVersion(), snapshot.getVersion());
+        assertEquals("Championship Court", snapshot.getFields().get("courtTitle"));
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        int fullBytes = objectMapper.writeValueAsBytes(point(6)).length;
+        int deltaBytes = objectMapper.writeValueAsBytes(second).length;
+        log.info("Bytes per point: full update {}, delta {}", fullBytes, deltaBytes);
+        assertTrue(deltaBytes * 5 < fullBytes, "delta of " + deltaBytes + " bytes vs " + fullBytes);
+    }
+
+    @Test
+    void mergesCompletionTypeLateGameStatusesAndCourtUuid() {
+        LiveScoreUpdate update = new LiveScoreUpdate();
+        update.setMatchUuid("m-1");
+        update.getScore().set(ScoreSlot.MATCH_COMPLETED_TYPE, 1);
+        update.getScore().setStatus(ScoreSlot.GAME_FIVE_STATUS, GameStatus.COMPLETED);
+        update.getScore().set(ScoreSlot.SERVER, 1);
+        update.setCourtUuid("c0ffee00-0000-4000-8000-000000000007");
+
+        service.processUpdate(update);
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(topicFanout).publish(eq("/topic/matches/m-1"), payload.capture());
+        MatchDelta delta = (MatchDelta) payload.getValue();
+        // The unchanged server is not reported
+        assertEquals(MatchField.MATCH_COMPLETED_TYPE.bit() | MatchField.GAME_FIVE_STATUS.bit()
+                | MatchField.COURT_UUID.bit(), delta.getChanged());
+
+        Match stored = store.get("m-1").orElseThrow();
+        assertEquals(1, stored.getMatchCompletedType());
+        assertEquals("COMPLETED", stored.getGameFiveStatus());
+        assertEquals("c0ffee00-0000-4000-8000-000000000007", stored.getCourtUuid());
+    }
+
+    @Test
+    void keepsUnlistedGameStatusesAndMatchesTickerSpelling() {
+        // The ticker stored the status as the feed spelled it before normalizing
+        store.update("m-1", held -> {
+            held.setGameOneStatus("in progress");
+            return 0;
+        });
+
+        LiveScoreUpdate update = new LiveScoreUpdate();
+        update.setMatchUuid("m-1");
+        update.getScore().set(ScoreSlot.GAME_ONE_STATUS, GameStatus.code("In Progress"));
+        update.getScore().set(ScoreSlot.GAME_TWO_STATUS, GameStatus.code("Medical Timeout"));
+        service.processUpdate(update);
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(topicFanout).publish(eq("/topic/matches/m-1"), payload.capture());
+        // Same status in another spelling is not a change
+        assertEquals(MatchField.GAME_TWO_STATUS.bit(), ((MatchDelta) payload.getValue()).getChanged());
+        assertEquals("MEDICAL_TIMEOUT", store.get("m-1").orElseThrow().getGameTwoStatus());
+        assertEquals("MEDICAL_TIMEOUT", update.getScore().getStatus(ScoreSlot.GAME_TWO_STATUS));
+    }
+
+    @Test
+    void broadcastsAResultOnlyTheTickerSaw() {
+        long before = store.snapshot("m-1").orElseThrow().getVersion();
+
+        // A sync that only changes details clients are not sent
+        Match renamed = LiveMatchStore.copyOf(store.get("m-1").orElseThrow());
+        renamed.setTeamOnePlayerOneName("Ben Johns");
+        renamed.setContentHash(1L);
+        service.mergeSynced(List.of(renamed));
+        verify(topicFanout, never()).publish(any(), any());
+        assertEquals(before, store.snapshot("m-1").orElseThrow().getVersion());
+
+        // The live feed missed the final point; the ticker has the result
+        Match finished = LiveMatchStore.copyOf(renamed);
+        finished.setMatchStatus(3);
+        finished.setWinner(1);
+        finished.setTeamOneGameOneScore(11);
+        finished.setContentHash(2L);
+        service.mergeSynced(List.of(finished));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(topicFanout).publish(eq("/topic/matches/m-1"), payload.capture());
+        MatchDelta delta = (MatchDelta) payload.getValue();
+        assertEquals(before + 1, delta.getVersion());
+        assertEquals(MatchField.MATCH_STATUS.bit() | MatchField.WINNER.bit()
+                | MatchField.TEAM_ONE_GAME_ONE_SCORE.bit(), delta.getChanged());
+        verify(eventStream).publish(any(), eq(delta));
+        assertEquals(3, store.get("m-1").orElseThrow().getMatchStatus());
+        assertTrue(store.getLiveMatches().isEmpty());
+    }
+
+    /** A point as the SSE feed sends it: the whole score line, names and court included */
+    private static LiveScoreUpdate point(int teamOneScore) {
+        LiveScoreUpdate update = new LiveScoreUpdate();
+        update.setMatchUuid("m-1");
+        update.getScore().set(ScoreSlot.MATCH_STATUS, 2);
+        update.getScore().set(ScoreSlot.CURRENT_GAME, 1);
+        update.getScore().set(ScoreSlot.TEAM_ONE_GAME_ONE_SCORE, teamOneScore);
+        update.getScore().set(ScoreSlot.TEAM_TWO_GAME_ONE_SCORE, 2);
+        update.getScore().set(ScoreSlot.SERVER, 1);
+        update.getScore().set(ScoreSlot.SERVER_FROM_TEAM, 1);
+        update.getScore().set(ScoreSlot.CURRENT_SERVING_NUMBER, 1);
+        update.getScore().setStatus(ScoreSlot.GAME_ONE_STATUS, GameStatus.IN_PROGRESS);
+        update.setCourtUuid("c0ffee00-0000-4000-8000-000000000007");
+        update.setCourtTitle("Championship Court");
+        update.setTeamOnePlayerOneFirstName("Ben");
+        update.setTeamOnePlayerOneLastName("Johns");
+        update.setTeamOnePlayerTwoFirstName("Collin");
+        update.setTeamOnePlayerTwoLastName("Johns");
+        update.setTeamTwoPlayerOneFirstName("Federico");
+        update.setTeamTwoPlayerOneLastName("Staksrud");
+        update.setTeamTwoPlayerTwoFirstName("Andrei");
+        update.setTeamTwoPlayerTwoLastName("Daescu");
+        update.setLocalDateMatchStart("2026-10-17T10:02:00");
+        update.setLocalDateMatchPlannedStart("2026-10-17T10:00:00");
+        update.setTimestamp(LocalDateTime.now());
+        update.setEventType("update");
+        update.setRawData(Map.of("matchUuid", "m-1"));
+        return update;
+    }
+}
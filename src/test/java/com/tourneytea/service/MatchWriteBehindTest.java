@@ -0,0 +1,82 @@
+package com.tourneytea.service;
+
+import com.tourneytea.model.Match;
+import com.tourneytea.repository.BulkUpsertRepository;
+import com.tourneytea.repository.MatchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(showSql = false)
+@Import(BulkUpsertRepository.class)
+class MatchWriteBehindTest {
+
+    @Autowired
+    private BulkUpsertRepository bulkUpsertRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Test
+    void writesLatestStateOfEachMatchOnceAndDrainsOnShutdown() throws InterruptedException {
+        // Interval long enough that only the shutdown drain writes anything
+        MatchWriteBehind writeBehind = new MatchWriteBehind(bulkUpsertRepository, 60_000, 1_000);
+        bulkUpsertRepository.upsertMatches(List.of(match("live-1", 0), match("live-2", 0)), List.of());
+
+        for (int score = 1; score <= 5; score++) {
+            writeBehind.markDirty(match("live-1", score));
+        }
+        writeBehind.markDirty(match("live-2", 7));
+        assertEquals(2, writeBehind.getStats().get("pending"));
+
+        writeBehind.destroy();
+
+        assertEquals(5, matchRepository.findById("live-1").orElseThrow().getTeamOneGameOneScore());
+        assertEquals(7, matchRepository.findById("live-2").orElseThrow().getTeamOneGameOneScore());
+        Map<String, Object> stats = writeBehind.getStats();
+        assertEquals(1L, stats.get("flushes"));
+        assertEquals(2L, stats.get("written"));
+        assertEquals(6L, stats.get("changes"));
+        assertEquals(0, stats.get("pending"));
+        assertEquals(0L, stats.get("missingRows"));
+    }
+
+    @Test
+    void updatesOnlyLiveColumnsSoTickerWritesSurvive() throws InterruptedException {
+        MatchWriteBehind writeBehind = new MatchWriteBehind(bulkUpsertRepository, 60_000, 1_000);
+        Match held = match("live-3", 4);
+        bulkUpsertRepository.upsertMatches(List.of(held), List.of());
+
+        // A ticker sync renames a player after the live store took its copy
+        Match synced = match("live-3", 4);
+        synced.setTeamOnePlayerOneName("Corrected Name");
+        bulkUpsertRepository.upsertMatches(List.of(synced), List.of());
+
+        Match live = match("live-3", 5);
+        live.setCourtUuid("court-9");
+        writeBehind.markDirty(live);
+        writeBehind.markDirty(match("not-stored", 1));
+        writeBehind.destroy();
+
+        Match stored = matchRepository.findById("live-3").orElseThrow();
+        assertEquals(5, stored.getTeamOneGameOneScore());
+        assertEquals("court-9", stored.getCourtUuid());
+        assertEquals("Corrected Name", stored.getTeamOnePlayerOneName());
+        assertEquals(1L, writeBehind.getStats().get("missingRows"));
+    }
+
+    private static Match match(String matchUuid, int score) {
+        Match match = new Match();
+        match.setMatchUuid(matchUuid);
+        match.setTournamentId("live");
+        match.setMatchStatus(2);
+        match.setTeamOneGameOneScore(score);
+        return match;
+    }
+}